@@ -2,13 +2,17 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.StreamClientCustomizer;
 
 import java.util.Map;
 
@@ -17,33 +21,44 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build());
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                         StreamClientCustomizer streamClientCustomizer) {
+        super(builder.uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX)), streamClientCustomizer);
     }
 
-    public ResponseEntity<Object> addBooking(Long userId, ShortBookingDto bookingDto) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> addBooking(Long userId, ShortBookingDto bookingDto) {
         return post("", userId, bookingDto);
     }
 
-    public ResponseEntity<Object> updateBookingStatus(Long bookingId, Long userId, String approved) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> updateBookingStatus(Long bookingId, Long userId, String approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
         return patch(String.format("/%d?approved={approved}", bookingId), userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getBookingById(Long userId, Long bookingId) {
+    public Mono<ResponseEntity<Flux<ServerSentEvent<String>>>> subscribeToBookingNotifications(Long userId) {
+        return stream("/notifications", userId);
+    }
+
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getBookingById(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllBookingsByUserFilteredByState(
-            String state, Integer from, Integer size, Long userId) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getAllBookingsByUserFilteredByState(
+            String state, Integer from, Integer size, String cursor, Long userId) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of("state", state, "cursor", cursor, "size", size);
+            return get("?state={state}&cursor={cursor}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of("state", state, "from", from, "size", size);
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getAllBookingsByItemsOwnerFilteredByState(
-            String state, Integer from, Integer size, Long userId) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getAllBookingsByItemsOwnerFilteredByState(
+            String state, Integer from, Integer size, String cursor, Long userId) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of("state", state, "cursor", cursor, "size", size);
+            return get("/owner?state={state}&cursor={cursor}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of("state", state, "from", from, "size", size);
         return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
@@ -3,9 +3,13 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
 import ru.practicum.shareit.validation.ValidationMarker;
 
@@ -24,7 +28,7 @@ public class BookingController {
 
     @PostMapping
     @Validated({ValidationMarker.OnCreate.class})
-    public ResponseEntity<Object> addBooking(
+    public Mono<ResponseEntity<ResponseBodyEmitter>> addBooking(
             @Valid @RequestBody ShortBookingDto bookingDto,
             @Positive(groups = {ValidationMarker.OnCreate.class}) @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("Add booking with itemId={} by user with id={}", bookingDto.getItemId(), userId);
@@ -32,7 +36,7 @@ public class BookingController {
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> updateBookingStatus(
+    public Mono<ResponseEntity<ResponseBodyEmitter>> updateBookingStatus(
             @Positive @PathVariable Long bookingId,
             @Positive @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam("approved") String approved) {
@@ -40,8 +44,15 @@ public class BookingController {
         return bookingClient.updateBookingStatus(bookingId, userId, approved);
     }
 
+    @GetMapping("/notifications")
+    public Mono<ResponseEntity<Flux<ServerSentEvent<String>>>> subscribeToBookingNotifications(
+            @Positive @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Subscribe to booking notifications by user with id={}", userId);
+        return bookingClient.subscribeToBookingNotifications(userId);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getBookingById(
             @Positive @PathVariable Long bookingId,
             @Positive @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("Get booking with id={} by user with id={}", bookingId, userId);
@@ -49,23 +60,26 @@ public class BookingController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllBookingsByUserFilteredByState(
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getAllBookingsByUserFilteredByState(
             @RequestParam(value = "state", defaultValue = "ALL") String state,
             @Min(0) @RequestParam(value = "from", defaultValue = "0") Integer from,
             @Positive @RequestParam(value = "size", defaultValue = "10") Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor,
             @Positive @RequestHeader("X-Sharer-User-Id") Long userId) {
-        log.info("Get bookings by user with id={}. Parameters: state={}, from={}, size={}", userId, state, from, size);
-        return bookingClient.getAllBookingsByUserFilteredByState(state, from, size, userId);
+        log.info("Get bookings by user with id={}. Parameters: state={}, from={}, size={}, cursor={}",
+                userId, state, from, size, cursor);
+        return bookingClient.getAllBookingsByUserFilteredByState(state, from, size, cursor, userId);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllBookingsByItemsOwnerFilteredByState(
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getAllBookingsByItemsOwnerFilteredByState(
             @RequestParam(value = "state", defaultValue = "ALL") String state,
             @Min(0) @RequestParam(value = "from", defaultValue = "0") Integer from,
             @Positive @RequestParam(value = "size", defaultValue = "10") Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor,
             @Positive @RequestHeader("X-Sharer-User-Id") Long userId) {
-        log.info("Get bookings by items owner with id={}. Parameters: state={}, from={}, size={}",
-                userId, state, from, size);
-        return bookingClient.getAllBookingsByItemsOwnerFilteredByState(state, from, size, userId);
+        log.info("Get bookings by items owner with id={}. Parameters: state={}, from={}, size={}, cursor={}",
+                userId, state, from, size, cursor);
+        return bookingClient.getAllBookingsByItemsOwnerFilteredByState(state, from, size, cursor, userId);
     }
 }
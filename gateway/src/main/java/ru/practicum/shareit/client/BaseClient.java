@@ -1,99 +1,140 @@
 package ru.practicum.shareit.client;
 
-import org.springframework.http.HttpEntity;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
 
 public class BaseClient {
 
-    protected final RestTemplate rest;
+    private static final List<String> PASSTHROUGH_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED,
+            HttpHeaders.CACHE_CONTROL,
+            HttpHeaders.LOCATION,
+            HttpHeaders.RETRY_AFTER,
+            "X-Next-Cursor");
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SERVER_SENT_EVENT =
+            new ParameterizedTypeReference<>() {
+            };
+
+    protected final WebClient webClient;
+    private final WebClient streamClient;
+
+    public BaseClient(WebClient webClient) {
+        this.webClient = webClient;
+        this.streamClient = webClient;
+    }
+
+    public BaseClient(WebClient.Builder builder, StreamClientCustomizer streamClientCustomizer) {
+        this.webClient = builder.build();
+        WebClient.Builder streamBuilder = builder.clone();
+        streamClientCustomizer.customize(streamBuilder);
+        this.streamClient = streamBuilder.build();
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected Mono<ResponseEntity<ResponseBodyEmitter>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<ResponseBodyEmitter>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<ResponseBodyEmitter>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<ResponseBodyEmitter>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<ResponseBodyEmitter>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<ResponseBodyEmitter>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<ResponseBodyEmitter>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<ResponseBodyEmitter>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<ResponseBodyEmitter>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<ResponseBodyEmitter>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<ResponseBodyEmitter>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<ResponseBodyEmitter>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<ResponseBodyEmitter>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<ResponseBodyEmitter>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<ResponseBodyEmitter>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
-        }
-        return prepareGatewayResponse(shareitServerResponse);
+    /**
+     * Relays a server-sent event stream. Events are passed on as they arrive, error statuses surface as
+     * {@link WebClientResponseException} before anything is written to the caller.
+     */
+    protected Mono<ResponseEntity<Flux<ServerSentEvent<String>>>> stream(String path, long userId) {
+        return streamClient.get()
+                .uri(path)
+                .headers(headers -> {
+                    headers.setAccept(List.of(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON));
+                    headers.set("X-Sharer-User-Id", String.valueOf(userId));
+                })
+                .retrieve()
+                .toEntityFlux(SERVER_SENT_EVENT)
+                .map(response -> ResponseEntity.status(response.getStatusCode())
+                        .contentType(MediaType.TEXT_EVENT_STREAM)
+                        .body(response.getBody()));
+    }
+
+    private <T> Mono<ResponseEntity<ResponseBodyEmitter>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(defaultHeaders(userId)));
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+        return requestWithBody.retrieve()
+                // Error statuses are relayed like any other response
+                .onRawStatus(status -> true, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(BaseClient::prepareGatewayResponse);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -106,15 +147,16 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
-        }
-        return responseBuilder.build();
+    private static ResponseEntity<ResponseBodyEmitter> prepareGatewayResponse(ResponseEntity<Flux<DataBuffer>> response) {
+        HttpHeaders headers = new HttpHeaders();
+        PASSTHROUGH_HEADERS.forEach(name -> {
+            List<String> values = response.getHeaders().get(name);
+            if (values != null) {
+                headers.put(name, values);
+            }
+        });
+        return ResponseEntity.status(response.getStatusCodeValue())
+                .headers(headers)
+                .body(new BodyRelay(response.getBody()));
     }
 }
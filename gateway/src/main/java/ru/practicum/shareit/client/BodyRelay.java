@@ -0,0 +1,50 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes a server response body to the caller as it arrives. Relaying starts once Spring MVC takes over the
+ * emitter, so nothing piles up before the caller's response is ready. Writes block on slow callers, so they
+ * run on the bounded elastic scheduler with one buffer read ahead.
+ */
+class BodyRelay extends ResponseBodyEmitter {
+
+    private final Flux<DataBuffer> body;
+
+    BodyRelay(Flux<DataBuffer> body) {
+        this.body = body;
+    }
+
+    @Override
+    protected void extendResponse(ServerHttpResponse outputMessage) {
+        super.extendResponse(outputMessage);
+        Disposable relay = body
+                .publishOn(Schedulers.boundedElastic(), 1)
+                .doOnNext(this::write)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                .subscribe(null, this::completeWithError, this::complete);
+        onTimeout(relay::dispose);
+        onError(error -> relay.dispose());
+    }
+
+    private void write(DataBuffer buffer) {
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            send(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package ru.practicum.shareit.client;
+
+import org.reactivestreams.Subscription;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Server response read into memory, so it can be handed out more than once. A body larger than the size limit
+ * is not held: the response is passed on as a stream instead, with the part already read put back in front.
+ */
+class BufferedResponse {
+
+    private final HttpStatus status;
+    private final HttpHeaders headers;
+    private final byte[] body;
+    private final ExchangeStrategies strategies;
+    @Nullable
+    private final ClientResponse streamedResponse;
+
+    private BufferedResponse(ClientResponse response, byte[] body) {
+        this.status = response.statusCode();
+        this.headers = new HttpHeaders();
+        this.headers.addAll(response.headers().asHttpHeaders());
+        this.body = body;
+        this.strategies = response.strategies();
+        this.streamedResponse = null;
+    }
+
+    private BufferedResponse(ClientResponse streamedResponse) {
+        this.status = streamedResponse.statusCode();
+        this.headers = streamedResponse.headers().asHttpHeaders();
+        this.body = null;
+        this.strategies = streamedResponse.strategies();
+        this.streamedResponse = streamedResponse;
+    }
+
+    static Mono<BufferedResponse> of(ClientResponse response, long maxSize) {
+        return Mono.create(sink -> {
+            BodyReader reader = new BodyReader(response, maxSize, sink);
+            sink.onCancel(reader::cancelReading);
+            response.bodyToFlux(DataBuffer.class).subscribe(reader);
+        });
+    }
+
+    HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Whether the body is held in memory. Otherwise the response can be handed out only once.
+     */
+    boolean isBuffered() {
+        return streamedResponse == null;
+    }
+
+    ClientResponse toClientResponse() {
+        if (streamedResponse != null) {
+            return streamedResponse;
+        }
+        return ClientResponse.create(status, strategies)
+                .headers(responseHeaders -> responseHeaders.addAll(headers))
+                .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)))
+                .build();
+    }
+
+    /**
+     * Reads the body one buffer at a time until it ends or passes the size limit. Past the limit it stops
+     * requesting and hands the rest of the body to whoever reads the streamed response.
+     */
+    private static class BodyReader extends BaseSubscriber<DataBuffer> {
+
+        private final ClientResponse response;
+        private final long maxSize;
+        private final MonoSink<BufferedResponse> sink;
+        private final List<DataBuffer> readBuffers = new ArrayList<>();
+        private long readSize;
+        private volatile boolean streaming;
+        private FluxSink<DataBuffer> rest;
+        private boolean restTerminated;
+        private Throwable restError;
+
+        BodyReader(ClientResponse response, long maxSize, MonoSink<BufferedResponse> sink) {
+            this.response = response;
+            this.maxSize = maxSize;
+            this.sink = sink;
+        }
+
+        void cancelReading() {
+            if (!streaming) {
+                cancel();
+            }
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            request(1);
+        }
+
+        @Override
+        protected void hookOnNext(DataBuffer buffer) {
+            if (streaming) {
+                rest.next(buffer);
+                return;
+            }
+            readBuffers.add(buffer);
+            readSize += buffer.readableByteCount();
+            if (readSize <= maxSize) {
+                request(1);
+                return;
+            }
+            streaming = true;
+            Flux<DataBuffer> body = Flux.concat(Flux.fromIterable(readBuffers), Flux.create(this::connectRest));
+            // Not response.mutate(), it would drain the original body this reader is subscribed to
+            sink.success(new BufferedResponse(ClientResponse.create(response.statusCode(), response.strategies())
+                    .headers(headers -> headers.addAll(response.headers().asHttpHeaders()))
+                    .body(body)
+                    .build()));
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            if (streaming) {
+                terminateRest(null);
+                return;
+            }
+            byte[] body = new byte[(int) readSize];
+            int position = 0;
+            for (DataBuffer buffer : readBuffers) {
+                int length = buffer.readableByteCount();
+                buffer.read(body, position, length);
+                position += length;
+                DataBufferUtils.release(buffer);
+            }
+            sink.success(new BufferedResponse(response, body));
+        }
+
+        @Override
+        protected void hookOnError(Throwable throwable) {
+            if (streaming) {
+                terminateRest(throwable);
+                return;
+            }
+            readBuffers.forEach(DataBufferUtils::release);
+            sink.error(throwable);
+        }
+
+        @Override
+        protected void hookOnCancel() {
+            if (!streaming) {
+                readBuffers.forEach(DataBufferUtils::release);
+            }
+        }
+
+        // Nothing is requested before the rest is connected, but the body may end before that
+        private synchronized void connectRest(FluxSink<DataBuffer> restSink) {
+            rest = restSink;
+            if (restTerminated) {
+                if (restError != null) {
+                    restSink.error(restError);
+                } else {
+                    restSink.complete();
+                }
+                return;
+            }
+            restSink.onRequest(this::request);
+            restSink.onCancel(this::cancel);
+        }
+
+        private synchronized void terminateRest(@Nullable Throwable error) {
+            if (rest == null) {
+                restTerminated = true;
+                restError = error;
+            } else if (error != null) {
+                rest.error(error);
+            } else {
+                rest.complete();
+            }
+        }
+    }
+}
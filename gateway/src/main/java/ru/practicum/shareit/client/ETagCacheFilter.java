@@ -0,0 +1,68 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * Keeps GET responses that carry an ETag and revalidates them with If-None-Match, so an unchanged resource costs
+ * the server a version lookup and a bodiless 304 instead of building the response again. Responses depend on the
+ * requesting user, so entries are keyed by URL and X-Sharer-User-Id. Responses too large to buffer are not kept.
+ */
+@Component
+public class ETagCacheFilter implements ExchangeFilterFunction {
+
+    private final Cache<String, BufferedResponse> cache;
+    private final long bufferedResponseMaxSize;
+
+    public ETagCacheFilter(ServerClientProperties properties, MeterRegistry meterRegistry) {
+        this.bufferedResponseMaxSize = properties.getBufferedResponseMaxSize().toBytes();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getResponseCacheMaximumSize())
+                .expireAfterAccess(properties.getResponseCacheExpireAfterAccess())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gatewayResponses");
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (request.method() != HttpMethod.GET) {
+            return next.exchange(request);
+        }
+        String key = request.url() + "|" + request.headers().getFirst("X-Sharer-User-Id");
+        BufferedResponse cached = cache.getIfPresent(key);
+        ClientRequest revalidatedRequest = cached == null ? request : ClientRequest.from(request)
+                .headers(headers -> headers.setIfNoneMatch(cached.getHeaders().getETag()))
+                .build();
+        return next.exchange(revalidatedRequest).flatMap(response -> {
+            if (cached != null && response.statusCode() == HttpStatus.NOT_MODIFIED) {
+                return response.releaseBody().thenReturn(cached.toClientResponse());
+            }
+            String eTag = response.headers().asHttpHeaders().getETag();
+            if (eTag == null || !response.statusCode().is2xxSuccessful()) {
+                if (cached != null) {
+                    cache.invalidate(key);
+                }
+                return Mono.just(response);
+            }
+            return BufferedResponse.of(response, bufferedResponseMaxSize).map(entry -> {
+                if (entry.isBuffered()) {
+                    cache.put(key, entry);
+                } else if (cached != null) {
+                    cache.invalidate(key);
+                }
+                return entry.toClientResponse();
+            });
+        });
+    }
+}
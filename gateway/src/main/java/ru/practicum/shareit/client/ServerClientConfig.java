@@ -0,0 +1,91 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+@EnableConfigurationProperties(ServerClientProperties.class)
+public class ServerClientConfig {
+
+    /**
+     * One pool for all server clients. Pool metrics are published as reactor.netty.connection.provider.*
+     * tagged with name=shareit-server.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider serverConnectionProvider(ServerClientProperties properties) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .maxLifeTime(properties.getMaxLifeTime())
+                .evictInBackground(properties.getEvictionInterval())
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * Pool for server-sent event streams, published as reactor.netty.connection.provider.* tagged with
+     * name=shareit-server-streams. Streams stay open, so connections are not recycled by lifetime.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider serverStreamConnectionProvider(ServerClientProperties properties) {
+        return ConnectionProvider.builder("shareit-server-streams")
+                .maxConnections(properties.getStreamMaxConnections())
+                .pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .evictInBackground(properties.getEvictionInterval())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClientCustomizer serverConnectionCustomizer(ConnectionProvider serverConnectionProvider,
+                                                          ServerClientProperties properties,
+                                                          SingleFlightFilter singleFlightFilter,
+                                                          ETagCacheFilter eTagCacheFilter) {
+        return builder -> builder.clientConnector(connector(serverConnectionProvider, properties))
+                .filter(readTimeoutFilter(properties))
+                .filter(singleFlightFilter)
+                .filter(eTagCacheFilter);
+    }
+
+    @Bean
+    public StreamClientCustomizer streamClientCustomizer(ConnectionProvider serverStreamConnectionProvider,
+                                                         ServerClientProperties properties) {
+        return new StreamClientCustomizer(connector(serverStreamConnectionProvider, properties));
+    }
+
+    private static ReactorClientHttpConnector connector(ConnectionProvider connectionProvider,
+                                                        ServerClientProperties properties) {
+        return new ReactorClientHttpConnector(HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, properties.isKeepAlive())
+                .keepAlive(properties.isKeepAlive()));
+    }
+
+    private static ExchangeFilterFunction readTimeoutFilter(ServerClientProperties properties) {
+        return (request, next) -> {
+            Duration timeout = request.headers().getAccept().contains(MediaType.TEXT_EVENT_STREAM)
+                    ? properties.getStreamReadTimeout()
+                    : properties.getReadTimeout();
+            return next.exchange(ClientRequest.from(request)
+                    .httpRequest(httpRequest -> httpRequest.<HttpClientRequest>getNativeRequest()
+                            .responseTimeout(timeout))
+                    .build());
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Connection settings shared by all clients calling the ShareIt server.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.client")
+public class ServerClientProperties {
+
+    /**
+     * Maximum number of open connections to the server. The gateway talks to a single server address,
+     * so this is also the per-route limit.
+     */
+    private int maxConnections = 200;
+
+    /**
+     * Maximum number of requests waiting for a free connection, -1 for no limit.
+     */
+    private int pendingAcquireMaxCount = 1000;
+
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Connections idle for longer than this are closed.
+     */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+
+    /**
+     * How often idle and expired connections are evicted in background, zero to evict on acquire only.
+     */
+    private Duration evictionInterval = Duration.ofSeconds(30);
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Read timeout for server-sent event streams, longer than the server heartbeat interval.
+     */
+    private Duration streamReadTimeout = Duration.ofMinutes(2);
+
+    /**
+     * Maximum number of open server-sent event streams to the server, one per subscriber.
+     */
+    private int streamMaxConnections = 20000;
+
+    private boolean keepAlive = true;
+
+    /**
+     * Maximum number of GET responses with an ETag kept for revalidation.
+     */
+    private long responseCacheMaximumSize = 10000;
+
+    private Duration responseCacheExpireAfterAccess = Duration.ofMinutes(10);
+
+    /**
+     * Largest GET response held in memory to share with coalesced requests or to keep for revalidation.
+     * Larger responses stream to the caller without being shared or kept.
+     */
+    private DataSize bufferedResponseMaxSize = DataSize.ofMegabytes(1);
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Merges identical GET requests that are in flight at the same time into one server call and hands its response
+ * to every caller. Requests are identical when URL, including query parameters, and X-Sharer-User-Id match.
+ * Coalescing ratio is gateway.single.flight.requests{result=coalesced} over all gateway.single.flight.requests.
+ * A response too large to buffer goes to the first caller only, the others send their own request.
+ */
+@Component
+public class SingleFlightFilter implements ExchangeFilterFunction {
+
+    private final ConcurrentMap<String, Mono<BufferedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter upstreamRequests;
+    private final Counter coalescedRequests;
+    private final long bufferedResponseMaxSize;
+
+    public SingleFlightFilter(ServerClientProperties properties, MeterRegistry meterRegistry) {
+        this.bufferedResponseMaxSize = properties.getBufferedResponseMaxSize().toBytes();
+        this.upstreamRequests = Counter.builder("gateway.single.flight.requests")
+                .description("GET requests sent to the server")
+                .tag("result", "upstream")
+                .register(meterRegistry);
+        this.coalescedRequests = Counter.builder("gateway.single.flight.requests")
+                .description("GET requests served by the response of an identical request in flight")
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (request.method() != HttpMethod.GET || request.headers().getAccept().contains(MediaType.TEXT_EVENT_STREAM)) {
+            return next.exchange(request);
+        }
+        String key = request.url() + "|" + request.headers().getFirst("X-Sharer-User-Id");
+        return Mono.defer(() -> {
+            Mono<BufferedResponse> call = inFlight.get(key);
+            if (call == null) {
+                // Removes only this call, a newer call under the same key may already be in flight
+                AtomicReference<Mono<BufferedResponse>> self = new AtomicReference<>();
+                Mono<BufferedResponse> newCall = next.exchange(request)
+                        .flatMap(response -> BufferedResponse.of(response, bufferedResponseMaxSize))
+                        .doFinally(signal -> inFlight.remove(key, self.get()))
+                        .cache();
+                self.set(newCall);
+                call = inFlight.putIfAbsent(key, newCall);
+                if (call == null) {
+                    upstreamRequests.increment();
+                    return newCall.map(BufferedResponse::toClientResponse);
+                }
+            }
+            coalescedRequests.increment();
+            return call.flatMap(response -> response.isBuffered()
+                    ? Mono.just(response.toClientResponse())
+                    : next.exchange(request));
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Points a client's server-sent event streams at their own connection pool. A stream holds its connection for
+ * as long as the subscriber stays, so sharing the pool would let idle subscribers starve ordinary requests.
+ * Not a {@link org.springframework.boot.web.reactive.function.client.WebClientCustomizer}, it applies only to
+ * the builders passed to it.
+ */
+public class StreamClientCustomizer {
+
+    private final ClientHttpConnector connector;
+
+    StreamClientCustomizer(ClientHttpConnector connector) {
+        this.connector = connector;
+    }
+
+    public void customize(WebClient.Builder builder) {
+        builder.clientConnector(connector);
+    }
+}
@@ -1,11 +1,16 @@
 package ru.practicum.shareit.error_handler;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import ru.practicum.shareit.rate_limit.RateLimitExceededException;
 
 import javax.validation.ConstraintViolationException;
 import java.util.HashMap;
@@ -26,6 +31,20 @@ public class ErrorHandler {
         return errorResponse;
     }
 
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> rateLimitExceptionHandler(RateLimitExceededException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ErrorResponse(Map.of("error", e.getMessage())));
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<byte[]> serverErrorHandler(WebClientResponseException e) {
+        return ResponseEntity.status(e.getRawStatusCode())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(e.getResponseBodyAsByteArray());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse unexpectedErrorHandler(RuntimeException e) {
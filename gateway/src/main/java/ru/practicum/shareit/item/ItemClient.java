@@ -1,11 +1,12 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -17,39 +18,43 @@ public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
 
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
+        super(builder.uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                 .build());
     }
 
-    public ResponseEntity<Object> addItem(Long userId, ItemDto itemDto) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> addItem(Long userId, ItemDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemDto itemDto) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> updateItem(Long userId, Long itemId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItemById(Long userId, Long itemId) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getItemById(Long userId, Long itemId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getUserItems(Long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getUserItems(Long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of("from", from, "size", size);
         return get("", userId, parameters);
     }
 
-    public ResponseEntity<Object> searchItems(Long userId, String text, Integer from, Integer size) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> searchItems(Long userId, String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of("text", text, "from", from, "size", size);
         return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> deleteItem(Long userId, Long itemId) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> suggestItemNames(Long userId, String prefix, Integer size) {
+        Map<String, Object> parameters = Map.of("prefix", prefix, "size", size);
+        return get("/search/suggest?prefix={prefix}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<ResponseBodyEmitter>> deleteItem(Long userId, Long itemId) {
         return delete("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> addCommentToItem(Long userId, Long itemId, CommentDto commentDto) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> addCommentToItem(Long userId, Long itemId, CommentDto commentDto) {
         return post(String.format("/%d/comment", itemId), userId, commentDto);
     }
 }
@@ -6,11 +6,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.validation.ValidationMarker;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
@@ -26,7 +29,7 @@ public class ItemController {
 
     @PostMapping
     @Validated({ValidationMarker.OnCreate.class})
-    public ResponseEntity<Object> addItem(
+    public Mono<ResponseEntity<ResponseBodyEmitter>> addItem(
             @Valid @RequestBody ItemDto itemDto,
             @Positive(groups = {ValidationMarker.OnCreate.class}) @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("Add item with name={}, description={}, available={}, reauestId={}",
@@ -36,7 +39,7 @@ public class ItemController {
 
     @PatchMapping("/{itemId}")
     @Validated({ValidationMarker.OnUpdate.class})
-    public ResponseEntity<Object> updateItem(
+    public Mono<ResponseEntity<ResponseBodyEmitter>> updateItem(
             @Valid @RequestBody ItemDto itemDto,
             @Positive(groups = {ValidationMarker.OnUpdate.class}) @PathVariable Long itemId,
             @Positive(groups = {ValidationMarker.OnUpdate.class}) @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -45,7 +48,7 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getItemById(
             @Positive @PathVariable Long itemId,
             @Positive @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("Get item with id={}", itemId);
@@ -53,7 +56,7 @@ public class ItemController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserItems(
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getUserItems(
             @Positive @RequestHeader("X-Sharer-User-Id") Long userId,
             @Min(0) @RequestParam(value = "from", defaultValue = "0") Integer from,
             @Positive @RequestParam(value = "size", defaultValue = "10") Integer size) {
@@ -62,7 +65,7 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(
+    public Mono<ResponseEntity<ResponseBodyEmitter>> searchItems(
             @Positive @RequestHeader("X-Sharer-User-Id") Long userId,
             @NotNull @RequestParam(value = "text", required = false) String text,
             @Min(0) @RequestParam(value = "from", defaultValue = "0") Integer from,
@@ -71,8 +74,18 @@ public class ItemController {
         return itemClient.searchItems(userId, text, from, size);
     }
 
+    // Names in lexicographic order ignoring case, each name once regardless of case
+    @GetMapping("/search/suggest")
+    public Mono<ResponseEntity<ResponseBodyEmitter>> suggestItemNames(
+            @Positive @RequestHeader("X-Sharer-User-Id") Long userId,
+            @NotNull @RequestParam(value = "prefix", required = false) String prefix,
+            @Positive @Max(50) @RequestParam(value = "size", defaultValue = "10") Integer size) {
+        log.info("Get item name suggestions with parameters: prefix={}, size={}", prefix, size);
+        return itemClient.suggestItemNames(userId, prefix, size);
+    }
+
     @DeleteMapping("/{itemId}")
-    public ResponseEntity<Object> deleteItem(
+    public Mono<ResponseEntity<ResponseBodyEmitter>> deleteItem(
             @Positive @PathVariable Long itemId,
             @Positive @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("Delete item with id={}", itemId);
@@ -81,7 +94,7 @@ public class ItemController {
 
     @PostMapping("/{itemId}/comment")
     @Validated({ ValidationMarker.OnCreate.class })
-    public ResponseEntity<Object> addCommentToItem(
+    public Mono<ResponseEntity<ResponseBodyEmitter>> addCommentToItem(
             @Positive(groups = {ValidationMarker.OnCreate.class}) @PathVariable Long itemId,
             @Positive(groups = {ValidationMarker.OnCreate.class}) @RequestHeader("X-Sharer-User-Id") Long userId,
             @Valid @RequestBody CommentDto commentDto) {
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.rate_limit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Rejects requests with 429 once a user exhausts the budget of an endpoint. Users are told apart by
+ * X-Sharer-User-Id, requests without it by the client address.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimitProperties properties;
+    private final Map<String, RateLimitProperties.Rule> rules;
+    private final Cache<String, TokenBucket> buckets;
+    private final Counter rejectedRequests;
+
+    public RateLimitInterceptor(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.rules = properties.getRules().stream()
+                .collect(Collectors.toMap(rule -> endpoint(rule.getMethod(), rule.getPath()), Function.identity()));
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumBuckets())
+                .expireAfterAccess(properties.getBucketExpireAfterAccess())
+                .build();
+        this.rejectedRequests = Counter.builder("gateway.rate.limit.rejected")
+                .description("Requests rejected because the user exhausted the endpoint budget")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Controllers return Mono, so every request is dispatched a second time to write the result
+        if (!properties.isEnabled() || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = endpoint(request.getMethod(), pattern != null ? pattern.toString() : request.getRequestURI());
+        String userId = request.getHeader("X-Sharer-User-Id");
+        String user = userId != null ? userId : request.getRemoteAddr();
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(user + " " + endpoint, key -> newBucket(endpoint, now));
+        long waitNanos = bucket.tryConsume(now);
+        if (waitNanos > 0) {
+            rejectedRequests.increment();
+            throw new RateLimitExceededException(String.format("Too many requests to %s", endpoint),
+                    (long) Math.ceil(waitNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+        }
+        return true;
+    }
+
+    private TokenBucket newBucket(String endpoint, long now) {
+        RateLimitProperties.Rule rule = rules.get(endpoint);
+        return rule != null
+                ? new TokenBucket(rule.getCapacity(), rule.getRefillPerSecond(), now)
+                : new TokenBucket(properties.getDefaultCapacity(), properties.getDefaultRefillPerSecond(), now);
+    }
+
+    private static String endpoint(String method, String path) {
+        return method.toUpperCase() + " " + path;
+    }
+}
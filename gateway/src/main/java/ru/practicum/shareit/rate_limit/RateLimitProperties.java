@@ -0,0 +1,56 @@
+package ru.practicum.shareit.rate_limit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Token bucket budgets per user and endpoint. Endpoints without a rule get the default budget.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Requests a user can make to one endpoint in a burst.
+     */
+    private long defaultCapacity = 100;
+
+    /**
+     * Requests per second a user can make to one endpoint in the long run.
+     */
+    private double defaultRefillPerSecond = 50;
+
+    private List<Rule> rules = new ArrayList<>();
+
+    private long maximumBuckets = 100000;
+
+    /**
+     * Buckets untouched for longer than this are dropped. It should exceed capacity / refill-per-second,
+     * so a dropped bucket would have been full anyway.
+     */
+    private Duration bucketExpireAfterAccess = Duration.ofMinutes(10);
+
+    @Getter
+    @Setter
+    public static class Rule {
+
+        private String method;
+
+        /**
+         * Path pattern as declared in the controller mapping, for example /bookings/owner or /items/{itemId}.
+         */
+        private String path;
+
+        private long capacity;
+
+        private double refillPerSecond;
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.rate_limit;
+
+import lombok.AllArgsConstructor;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket: the state is swapped with compare-and-set, so concurrent requests never block each other.
+ */
+class TokenBucket {
+
+    private final long capacity;
+    private final double refillPerNano;
+    private final AtomicReference<State> state;
+
+    TokenBucket(long capacity, double refillPerSecond, long now) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.state = new AtomicReference<>(new State(capacity, now));
+    }
+
+    /**
+     * Takes one token.
+     *
+     * @return 0 if the token was taken, otherwise nanoseconds until the next token is available
+     */
+    long tryConsume(long now) {
+        while (true) {
+            State current = state.get();
+            long elapsed = Math.max(0, now - current.timestamp);
+            double tokens = Math.min(capacity, current.tokens + elapsed * refillPerNano);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / refillPerNano);
+            }
+            if (state.compareAndSet(current, new State(tokens - 1, Math.max(now, current.timestamp)))) {
+                return 0;
+            }
+        }
+    }
+
+    @AllArgsConstructor
+    private static class State {
+        private final double tokens;
+        private final long timestamp;
+    }
+}
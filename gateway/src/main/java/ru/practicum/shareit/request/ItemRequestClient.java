@@ -1,12 +1,16 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.StreamClientCustomizer;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.Map;
@@ -16,26 +20,39 @@ public class ItemRequestClient extends BaseClient {
 
     private static final String API_PREFIX = "/requests";
 
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build());
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                             StreamClientCustomizer streamClientCustomizer) {
+        super(builder.uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX)), streamClientCustomizer);
     }
 
-    public ResponseEntity<Object> addItemRequest(Long userId, ItemRequestDto requestDto) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> addItemRequest(Long userId, ItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getUserItemRequests(Long userId) {
-        return get("", userId);
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getUserItemRequests(Long userId, Integer from, Integer size, String cursor) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of("cursor", cursor, "size", size);
+            return get("?cursor={cursor}&size={size}", userId, parameters);
+        }
+        Map<String, Object> parameters = Map.of("from", from, "size", size);
+        return get("?from={from}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<ServerSentEvent<String>>>> subscribeToItemOffers(Long userId) {
+        return stream("/offers", userId);
     }
 
-    public ResponseEntity<Object> getItemRequestById(Long userId, Long requestId) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getItemRequestById(Long userId, Long requestId) {
         return get("/" + requestId, userId);
     }
 
-    public ResponseEntity<Object> getAllAnotherUsersItemRequests(Long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getAllAnotherUsersItemRequests(
+            Long userId, Integer from, Integer size, String cursor) {
+        if (cursor != null) {
+            Map<String, Object> parameters = Map.of("cursor", cursor, "size", size);
+            return get("/all?cursor={cursor}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of("from", from, "size", size);
-        return get("/all", userId, parameters);
+        return get("/all?from={from}&size={size}", userId, parameters);
     }
 }
@@ -3,9 +3,13 @@ package ru.practicum.shareit.request;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.validation.ValidationMarker;
 
@@ -24,7 +28,7 @@ public class ItemRequestController {
 
     @PostMapping
     @Validated({ValidationMarker.OnCreate.class})
-    public ResponseEntity<Object> addItemRequest(
+    public Mono<ResponseEntity<ResponseBodyEmitter>> addItemRequest(
             @Valid @RequestBody ItemRequestDto requestDto,
             @Positive(groups = {ValidationMarker.OnCreate.class}) @RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("Add request by user with id={}", userId);
@@ -32,13 +36,24 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserItemRequests(@Positive @RequestHeader("X-Sharer-User-Id") Long userId) {
-        log.info("Get requests by user with id={}", userId);
-        return itemRequestClient.getUserItemRequests(userId);
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getUserItemRequests(
+            @Positive @RequestHeader("X-Sharer-User-Id") Long userId,
+            @Min(0) @RequestParam(value = "from", defaultValue = "0") Integer from,
+            @Positive @RequestParam(value = "size", defaultValue = "10") Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        log.info("Get requests by user with id={}. Parameters: from={}, size={}, cursor={}", userId, from, size, cursor);
+        return itemRequestClient.getUserItemRequests(userId, from, size, cursor);
+    }
+
+    @GetMapping("/offers")
+    public Mono<ResponseEntity<Flux<ServerSentEvent<String>>>> subscribeToItemOffers(
+            @Positive @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Subscribe to item offers by user with id={}", userId);
+        return itemRequestClient.subscribeToItemOffers(userId);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getItemRequestById(
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getItemRequestById(
             @Positive @RequestHeader("X-Sharer-User-Id") Long userId,
             @Positive @PathVariable Long requestId) {
         log.info("Get request with id={} by user with id={}", requestId, userId);
@@ -46,11 +61,12 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllAnotherUsersItemRequests(
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getAllAnotherUsersItemRequests(
             @Positive @RequestHeader("X-Sharer-User-Id") Long userId,
             @Min(0) @RequestParam(value = "from", defaultValue = "0") Integer from,
-            @Positive @RequestParam(value = "size", defaultValue = "10") Integer size) {
-        log.info("Get all requests. Parameters: userId={}, from={}, size={}", userId, from, size);
-        return itemRequestClient.getAllAnotherUsersItemRequests(userId, from, size);
+            @Positive @RequestParam(value = "size", defaultValue = "10") Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        log.info("Get all requests. Parameters: userId={}, from={}, size={}, cursor={}", userId, from, size, cursor);
+        return itemRequestClient.getAllAnotherUsersItemRequests(userId, from, size, cursor);
     }
 }
@@ -1,11 +1,12 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.user.dto.UserDto;
 
@@ -14,29 +15,28 @@ public class UserClient extends BaseClient {
 
     private static final String API_PREFIX = "/users";
 
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
+        super(builder.uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                 .build());
     }
 
-    public ResponseEntity<Object> addUser(String path, UserDto userDto) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> addUser(String path, UserDto userDto) {
         return post(path, userDto);
     }
 
-    public ResponseEntity<Object> getUserById(Long userId) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getUserById(Long userId) {
         return get("/" + userId, userId);
     }
 
-    public ResponseEntity<Object> getAllUsers() {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getAllUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> updateUser(Long userId, UserDto userDto) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> updateUser(Long userId, UserDto userDto) {
         return patch("/" + userId, userId, userDto);
     }
 
-    public ResponseEntity<Object> deleteUser(Long userId) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> deleteUser(Long userId) {
         return delete("/" + userId);
     }
 }
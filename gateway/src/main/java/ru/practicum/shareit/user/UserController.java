@@ -12,6 +12,8 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.validation.ValidationMarker;
 
@@ -29,26 +31,26 @@ public class UserController {
 
     @PostMapping
     @Validated({ ValidationMarker.OnCreate.class })
-    public ResponseEntity<Object> addUser(@Valid @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> addUser(@Valid @RequestBody UserDto userDto) {
         log.info("Add user with name={}, email={}", userDto.getName(), userDto.getEmail());
         return userClient.addUser("", userDto);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(@Positive @PathVariable Long userId) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getUserById(@Positive @PathVariable Long userId) {
         log.info("Get user with id={}", userId);
         return userClient.getUserById(userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getAllUsers() {
         log.info("Get all users");
         return userClient.getAllUsers();
     }
 
     @PatchMapping("/{userId}")
     @Validated({ ValidationMarker.OnUpdate.class })
-    public ResponseEntity<Object> updateUser(
+    public Mono<ResponseEntity<ResponseBodyEmitter>> updateUser(
             @Valid @RequestBody UserDto userDto,
             @Positive(groups = {ValidationMarker.OnUpdate.class}) @PathVariable Long userId) {
         log.info("Update user with id={}", userId);
@@ -56,7 +58,7 @@ public class UserController {
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUser(@Positive @PathVariable Long userId) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> deleteUser(@Positive @PathVariable Long userId) {
         log.info("Delete user with id={}", userId);
         return userClient.deleteUser(userId);
     }
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.client_test;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ETagCacheTest {
+
+    private static HttpServer server;
+    private static volatile int version;
+    private static final List<String> receivedIfNoneMatch = new CopyOnWriteArrayList<>();
+    private static final List<Integer> sentStatuses = new CopyOnWriteArrayList<>();
+
+    private final TestRestTemplate restTemplate;
+
+    @Autowired
+    public ETagCacheTest(TestRestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    @BeforeAll
+    public static void startServer() throws IOException {
+        // Server stub tagging responses with the current version and answering 304 to a matching If-None-Match
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            String eTag = "\"" + version + "\"";
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            receivedIfNoneMatch.add(String.valueOf(ifNoneMatch));
+            exchange.getResponseHeaders().add("ETag", eTag);
+            if (eTag.equals(ifNoneMatch)) {
+                sentStatuses.add(304);
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = String.format("{\"version\":%d,\"user\":\"%s\"}", version,
+                    exchange.getRequestHeaders().getFirst("X-Sharer-User-Id")).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            sentStatuses.add(200);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterAll
+    public static void stopServer() {
+        server.stop(0);
+    }
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @BeforeEach
+    public void resetServer() {
+        version = 1;
+        receivedIfNoneMatch.clear();
+        sentStatuses.clear();
+    }
+
+    @Test
+    public void notModifiedTest() {
+        ResponseEntity<String> first = get("/items/1", 1L);
+        ResponseEntity<String> second = get("/items/1", 1L);
+
+        // Second request is revalidated and the server 304 is answered with the cached body
+        assertThat(receivedIfNoneMatch, contains("null", "\"1\""));
+        assertThat(sentStatuses, contains(200, 304));
+        assertThat(second.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(second.getBody(), equalTo(first.getBody()));
+        assertThat(second.getBody(), equalTo("{\"version\":1,\"user\":\"1\"}"));
+    }
+
+    @Test
+    public void changedResourceTest() {
+        get("/items/2", 1L);
+        version = 2;
+        ResponseEntity<String> changed = get("/items/2", 1L);
+        ResponseEntity<String> cached = get("/items/2", 1L);
+
+        // Changed resource replaces the cached entry
+        assertThat(receivedIfNoneMatch, contains("null", "\"1\"", "\"2\""));
+        assertThat(sentStatuses, contains(200, 200, 304));
+        assertThat(changed.getBody(), equalTo("{\"version\":2,\"user\":\"1\"}"));
+        assertThat(cached.getBody(), equalTo("{\"version\":2,\"user\":\"1\"}"));
+    }
+
+    @Test
+    public void cachePerUserTest() {
+        get("/items/3", 1L);
+        ResponseEntity<String> otherUser = get("/items/3", 2L);
+        ResponseEntity<String> sameUser = get("/items/3", 1L);
+
+        // Other user misses the first user's entry and gets its own response
+        assertThat(receivedIfNoneMatch, contains("null", "null", "\"1\""));
+        assertThat(otherUser.getBody(), equalTo("{\"version\":1,\"user\":\"2\"}"));
+        assertThat(sameUser.getBody(), equalTo("{\"version\":1,\"user\":\"1\"}"));
+    }
+
+    private ResponseEntity<String> get(String path, Long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        return restTemplate.exchange(path, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.client_test;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class LargeResponseTest {
+
+    private static final int LARGE_BODY_SIZE = 1024 * 1024;
+    private static final int STREAMED_BODY_SIZE = 17 * 1024 * 1024;
+
+    private static HttpServer server;
+    private static byte[] body;
+
+    private final TestRestTemplate restTemplate;
+
+    @Autowired
+    public LargeResponseTest(TestRestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    @BeforeAll
+    public static void startServer() throws IOException {
+        // Server stub answering GET /users with a JSON array of the requested size
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/users", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterAll
+    public static void stopServer() {
+        server.stop(0);
+    }
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @Test
+    public void largeResponseTest() {
+        // Body four times the default WebClient limit of 256 KB, buffered by the gateway
+        body = jsonOfSize(LARGE_BODY_SIZE);
+
+        ResponseEntity<byte[]> response = restTemplate.getForEntity("/users", byte[].class);
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.getBody().length, equalTo(LARGE_BODY_SIZE));
+        assertThat(Arrays.equals(response.getBody(), body), equalTo(true));
+    }
+
+    @Test
+    public void streamedResponseTest() {
+        // Body above the 1MB the gateway buffers, relayed as it arrives
+        body = jsonOfSize(STREAMED_BODY_SIZE);
+
+        ResponseEntity<byte[]> response = restTemplate.getForEntity("/users", byte[].class);
+
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.getBody().length, equalTo(STREAMED_BODY_SIZE));
+        assertThat(Arrays.equals(response.getBody(), body), equalTo(true));
+    }
+
+    private static byte[] jsonOfSize(int size) {
+        byte[] json = new byte[size];
+        Arrays.fill(json, (byte) ' ');
+        byte[] array = "[{\"id\":1,\"name\":\"User\",\"email\":\"user@mail.com\"}".getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(array, 0, json, 0, array.length);
+        json[size - 1] = ']';
+        return json;
+    }
+}
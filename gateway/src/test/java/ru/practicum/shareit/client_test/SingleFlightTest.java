@@ -0,0 +1,168 @@
+package ru.practicum.shareit.client_test;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class SingleFlightTest {
+
+    private static final int CALLERS_COUNT = 10;
+
+    private static HttpServer server;
+    private static ExecutorService serverExecutor;
+    private static final AtomicInteger serverCalls = new AtomicInteger();
+    private static volatile CountDownLatch releaseResponses;
+
+    private final TestRestTemplate restTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS_COUNT);
+
+    @Autowired
+    public SingleFlightTest(TestRestTemplate restTemplate, MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @BeforeAll
+    public static void startServer() throws IOException {
+        // Server stub holding every response until the test releases it. The body names path and user
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            serverCalls.incrementAndGet();
+            try {
+                releaseResponses.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = String.format("{\"path\":\"%s\",\"user\":\"%s\"}", exchange.getRequestURI(),
+                    exchange.getRequestHeaders().getFirst("X-Sharer-User-Id")).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterAll
+    public static void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @BeforeEach
+    public void resetServer() {
+        serverCalls.set(0);
+        releaseResponses = new CountDownLatch(1);
+    }
+
+    @Test
+    public void identicalGetsTest() throws Exception {
+        // Send identical requests while the server holds the first one
+        double coalescedBefore = coalescedCount();
+        List<CompletableFuture<ResponseEntity<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < CALLERS_COUNT; i++) {
+            responses.add(send(HttpMethod.GET, "/items/1", 1L));
+        }
+        awaitCondition(() -> coalescedCount() - coalescedBefore >= CALLERS_COUNT - 1);
+        releaseResponses.countDown();
+
+        // Check one server call answered every caller with the whole body
+        for (CompletableFuture<ResponseEntity<String>> response : responses) {
+            ResponseEntity<String> entity = response.get(10, TimeUnit.SECONDS);
+            assertThat(entity.getStatusCode(), equalTo(HttpStatus.OK));
+            assertThat(entity.getBody(), equalTo("{\"path\":\"/items/1\",\"user\":\"1\"}"));
+        }
+        assertThat(serverCalls.get(), equalTo(1));
+    }
+
+    @Test
+    public void differentUsersTest() throws Exception {
+        // Same URL for two users. Both reach the server before it answers
+        CompletableFuture<ResponseEntity<String>> firstUser = send(HttpMethod.GET, "/items/1", 1L);
+        CompletableFuture<ResponseEntity<String>> secondUser = send(HttpMethod.GET, "/items/1", 2L);
+        awaitCondition(() -> serverCalls.get() == 2);
+        releaseResponses.countDown();
+
+        // Check every user got its own response
+        assertThat(List.of(firstUser.get(10, TimeUnit.SECONDS).getBody(), secondUser.get(10, TimeUnit.SECONDS).getBody()),
+                containsInAnyOrder("{\"path\":\"/items/1\",\"user\":\"1\"}", "{\"path\":\"/items/1\",\"user\":\"2\"}"));
+    }
+
+    @Test
+    public void identicalPostsTest() throws Exception {
+        // Identical POST requests all reach the server
+        CompletableFuture<ResponseEntity<String>> first = send(HttpMethod.POST, "/users", null);
+        CompletableFuture<ResponseEntity<String>> second = send(HttpMethod.POST, "/users", null);
+        awaitCondition(() -> serverCalls.get() == 2);
+        releaseResponses.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS).getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(second.get(10, TimeUnit.SECONDS).getStatusCode(), equalTo(HttpStatus.OK));
+    }
+
+    private CompletableFuture<ResponseEntity<String>> send(HttpMethod method, String path, Long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (userId != null) {
+            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        String body = method == HttpMethod.POST ? "{\"name\":\"User\",\"email\":\"user@mail.com\"}" : null;
+        return CompletableFuture.supplyAsync(() ->
+                restTemplate.exchange(path, method, new HttpEntity<>(body, headers), String.class), callers);
+    }
+
+    private double coalescedCount() {
+        return meterRegistry.get("gateway.single.flight.requests").tag("result", "coalesced").counter().count();
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.rate_limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class TokenBucketTest {
+
+    private static final long START = 1_000_000L;
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void burstTest() {
+        TokenBucket bucket = new TokenBucket(3, 2, START);
+
+        // Full bucket lets the whole capacity through at once
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryConsume(START), equalTo(0L));
+        }
+        assertThat(bucket.tryConsume(START), equalTo(SECOND / 2));
+    }
+
+    @Test
+    public void refillTest() {
+        TokenBucket bucket = new TokenBucket(2, 2, START);
+        bucket.tryConsume(START);
+        bucket.tryConsume(START);
+
+        // Half a second brings back exactly one token
+        assertThat(bucket.tryConsume(START + SECOND / 4), equalTo(SECOND / 4));
+        assertThat(bucket.tryConsume(START + SECOND / 2), equalTo(0L));
+        assertThat(bucket.tryConsume(START + SECOND / 2), equalTo(SECOND / 2));
+    }
+
+    @Test
+    public void refillUpToCapacityTest() {
+        TokenBucket bucket = new TokenBucket(2, 2, START);
+        bucket.tryConsume(START);
+        bucket.tryConsume(START);
+
+        // Long idle time refills the bucket to its capacity and no further
+        long later = START + 10 * SECOND;
+        assertThat(bucket.tryConsume(later), equalTo(0L));
+        assertThat(bucket.tryConsume(later), equalTo(0L));
+        assertThat(bucket.tryConsume(later), equalTo(SECOND / 2));
+    }
+
+    @Test
+    public void clockGoingBackTest() {
+        TokenBucket bucket = new TokenBucket(1, 1, START);
+        bucket.tryConsume(START);
+
+        // Timestamp older than the bucket state adds no tokens
+        assertThat(bucket.tryConsume(START - SECOND), equalTo(SECOND));
+        assertThat(bucket.tryConsume(START + SECOND), equalTo(0L));
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.rate_limit_test;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "shareit.rate-limit.default-capacity=3",
+        "shareit.rate-limit.default-refill-per-second=0.01",
+        "shareit.rate-limit.rules[0].method=GET",
+        "shareit.rate-limit.rules[0].path=/users/{userId}",
+        "shareit.rate-limit.rules[0].capacity=1",
+        "shareit.rate-limit.rules[0].refill-per-second=0.5"
+})
+public class RateLimitTest {
+
+    private static final byte[] BODY = "{}".getBytes(StandardCharsets.UTF_8);
+
+    private static HttpServer server;
+    private static final AtomicInteger serverCalls = new AtomicInteger();
+
+    private final TestRestTemplate restTemplate;
+
+    @Autowired
+    public RateLimitTest(TestRestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    @BeforeAll
+    public static void startServer() throws IOException {
+        // Server stub answering every request with an empty JSON object
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            serverCalls.incrementAndGet();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(BODY);
+            }
+        });
+        server.start();
+    }
+
+    @AfterAll
+    public static void stopServer() {
+        server.stop(0);
+    }
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @Test
+    public void defaultBudgetTest() {
+        // Whole default capacity passes, so the async dispatch of each request takes no extra token
+        for (int i = 0; i < 3; i++) {
+            ResponseEntity<String> response = get("/items/" + (i + 1), 1L);
+            assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+            assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER), nullValue());
+        }
+
+        // Next request waits for one token at 0.01 tokens per second
+        int serverCallsBefore = serverCalls.get();
+        ResponseEntity<String> rejected = get("/items/1", 1L);
+        assertThat(rejected.getStatusCode(), equalTo(HttpStatus.TOO_MANY_REQUESTS));
+        assertThat(rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER), equalTo("100"));
+        assertThat(serverCalls.get(), equalTo(serverCallsBefore));
+    }
+
+    @Test
+    public void ruleOverrideTest() {
+        assertThat(get("/users/1", 2L).getStatusCode(), equalTo(HttpStatus.OK));
+
+        // Rule allows one request and a token every two seconds
+        ResponseEntity<String> rejected = get("/users/2", 2L);
+        assertThat(rejected.getStatusCode(), equalTo(HttpStatus.TOO_MANY_REQUESTS));
+        assertThat(rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER), equalTo("2"));
+    }
+
+    @Test
+    public void separateBudgetsTest() {
+        assertThat(get("/users/1", 3L).getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(get("/users/1", 3L).getStatusCode(), equalTo(HttpStatus.TOO_MANY_REQUESTS));
+
+        // Other user and other endpoint have their own budgets
+        assertThat(get("/users/1", 4L).getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(get("/users", 3L).getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(get("/items/1", 3L).getStatusCode(), equalTo(HttpStatus.OK));
+    }
+
+    private ResponseEntity<String> get(String path, Long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        return restTemplate.exchange(path, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+}
@@ -1,11 +1,17 @@
 package ru.practicum.shareit.booking.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.notification.NotificationHub;
+import ru.practicum.shareit.notification.NotificationTopic;
+import ru.practicum.shareit.pagination.PageCursor;
 
 import java.util.List;
 
@@ -14,10 +20,12 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final NotificationHub notificationHub;
 
     @Autowired
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, NotificationHub notificationHub) {
         this.bookingService = bookingService;
+        this.notificationHub = notificationHub;
     }
 
     @PostMapping
@@ -35,6 +43,12 @@ public class BookingController {
         return BookingMapper.toBookingDto(bookingService.updateBookingStatus(bookingId, userId, approved));
     }
 
+    @GetMapping("/notifications")
+    public SseEmitter subscribeToBookingNotifications(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        bookingService.checkUserExists(userId);
+        return notificationHub.subscribe(NotificationTopic.BOOKINGS, userId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBookingById(
             @PathVariable Long bookingId,
@@ -43,22 +57,41 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getAllBookingsByUserFilteredByState(
+    public ResponseEntity<List<BookingDto>> getAllBookingsByUserFilteredByState(
             @RequestParam(value = "state", defaultValue = "ALL") String state,
             @RequestParam(value = "from", defaultValue = "0") Integer from,
             @RequestParam(value = "size", defaultValue = "10") Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor,
             @RequestHeader("X-Sharer-User-Id") Long userId) {
-        return BookingMapper.toBookingDto(
-                bookingService.getAllBookingsByUserFilteredByState(state, userId, from, size));
+        if (cursor == null) {
+            return ResponseEntity.ok(BookingMapper.toBookingDto(
+                    bookingService.getAllBookingsByUserFilteredByState(state, userId, from, size)));
+        }
+        return toCursorPage(bookingService.getBookingsByUserAfterCursor(
+                state, userId, PageCursor.decode(cursor), size), size);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllBookingsByItemsOwnerFilteredByState(
+    public ResponseEntity<List<BookingDto>> getAllBookingsByItemsOwnerFilteredByState(
             @RequestParam(value = "state", defaultValue = "ALL") String state,
             @RequestParam(value = "from", defaultValue = "0") Integer from,
             @RequestParam(value = "size", defaultValue = "10") Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor,
             @RequestHeader("X-Sharer-User-Id") Long userId) {
-        return BookingMapper.toBookingDto(
-                bookingService.getAllBookingsByItemsOwnerFilteredByState(state, userId, from, size));
+        if (cursor == null) {
+            return ResponseEntity.ok(BookingMapper.toBookingDto(
+                    bookingService.getAllBookingsByItemsOwnerFilteredByState(state, userId, from, size)));
+        }
+        return toCursorPage(bookingService.getBookingsByItemsOwnerAfterCursor(
+                state, userId, PageCursor.decode(cursor), size), size);
+    }
+
+    private ResponseEntity<List<BookingDto>> toCursorPage(List<Booking> bookings, Integer size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!bookings.isEmpty() && bookings.size() == size) {
+            Booking last = bookings.get(bookings.size() - 1);
+            response.header(PageCursor.NEXT_CURSOR_HEADER, new PageCursor(last.getStart(), last.getId()).encode());
+        }
+        return response.body(BookingMapper.toBookingDto(bookings));
     }
 }
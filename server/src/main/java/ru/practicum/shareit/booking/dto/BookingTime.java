@@ -1,10 +0,0 @@
-package ru.practicum.shareit.booking.dto;
-
-import java.time.LocalDateTime;
-
-public interface BookingTime {
-
-    LocalDateTime getStart();
-
-    LocalDateTime getEnd();
-}
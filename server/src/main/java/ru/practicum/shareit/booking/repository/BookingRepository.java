@@ -1,44 +1,42 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import ru.practicum.shareit.booking.dto.BookingTime;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
+import javax.persistence.LockModeType;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
 
-    Page<Booking> findAllByBookerIdOrderByIdDesc(Long bookerId, Pageable pageable);
-
-    Page<Booking> findAllByBookerIdAndStatusOrderByItemId(Long bookerId, BookingStatus status, Pageable pageable);
-
-    Page<Booking> findAllByBookerIdAndStartBeforeAndEndAfterOrderByItemId(Long bookerId, LocalDateTime start,
-                                                                          LocalDateTime end, Pageable pageable);
-
-    Page<Booking> findAllByBookerIdAndEndBeforeOrderByItemId(Long bookerId, LocalDateTime end, Pageable pageable);
-
-    Page<Booking> findAllByBookerIdAndStartAfterOrderByItemId(Long bookerId, LocalDateTime start, Pageable pageable);
-
-    Page<Booking> findAllByItemOwnerIdOrderByStartDesc(Long ownerId, Pageable pageable);
-
-    Page<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status, Pageable pageable);
-
-    Page<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long bookerId, LocalDateTime start,
-                                                                                LocalDateTime end, Pageable pageable);
-
-    Page<Booking> findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime end, Pageable pageable);
-
-    Page<Booking> findAllByItemOwnerIdAndStartAfterOrderByStartDesc(Long bookerId, LocalDateTime start,
-                                                                    Pageable pageable);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Booking> findForUpdateById(Long bookingId);
 
     List<Booking> findByBookerIdAndItemIdAndStatusAndEndBefore(Long bookerId, Long itemId, BookingStatus status, LocalDateTime end);
 
-    List<BookingTime> findAllByItemIdAndStatus(Long itemId, BookingStatus status);
-
-    List<Booking> findAllByItemIdInAndItemOwnerId(Collection<Long> itemId, Long userId);
+    boolean existsByItemIdAndStatusAndStartLessThanEqualAndEndGreaterThanEqual(Long itemId, BookingStatus status,
+                                                                              LocalDateTime end, LocalDateTime start);
+
+    @Query(value = "select id_booking, start_booking, end_booking, id_item, id_user, status " +
+            "from (select b.*, row_number() over (partition by b.id_item " +
+            "order by b.start_booking desc, b.id_booking desc) as rn " +
+            "from bookings as b " +
+            "where b.id_item in (:itemIds) and b.status = 'APPROVED' and b.start_booking < :now) as last_bookings " +
+            "where rn = 1 " +
+            "union all " +
+            "select id_booking, start_booking, end_booking, id_item, id_user, status " +
+            "from (select b.*, row_number() over (partition by b.id_item " +
+            "order by b.start_booking asc, b.id_booking asc) as rn " +
+            "from bookings as b " +
+            "where b.id_item in (:itemIds) and b.status = 'APPROVED' and b.start_booking > :now) as next_bookings " +
+            "where rn = 1",
+            nativeQuery = true)
+    List<Booking> findLastAndNextApprovedBookings(@Param("itemIds") Collection<Long> itemIds,
+                                                  @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+    List<Booking> findAll(Specification<Booking> specification, Sort sort, long offset, int limit);
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.PageCursor;
+
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+
+public class BookingSpecifications {
+
+    public static final Sort START_DESC_ID_ASC = Sort.by(Sort.Order.desc("start"), Sort.Order.asc("id"));
+
+    public static Specification<Booking> byBooker(Long bookerId) {
+        return (root, query, cb) -> cb.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    public static Specification<Booking> byItemOwner(Long ownerId) {
+        return (root, query, cb) -> cb.equal(item(root).get("owner").get("id"), ownerId);
+    }
+
+    public static Specification<Booking> inState(BookingState state, LocalDateTime now) {
+        switch (state) {
+            case ALL:
+                return null;
+            case CURRENT:
+                return (root, query, cb) -> cb.and(
+                        cb.lessThan(root.<LocalDateTime>get("start"), now),
+                        cb.greaterThan(root.<LocalDateTime>get("end"), now));
+            case PAST:
+                return (root, query, cb) -> cb.lessThan(root.<LocalDateTime>get("end"), now);
+            case FUTURE:
+                return (root, query, cb) -> cb.greaterThan(root.<LocalDateTime>get("start"), now);
+            default:
+                BookingStatus status = BookingStatus.valueOf(state.name());
+                return (root, query, cb) -> cb.equal(root.get("status"), status);
+        }
+    }
+
+    /**
+     * Keyset condition for {@link #START_DESC_ID_ASC}: rows strictly after the cursor position.
+     */
+    public static Specification<Booking> after(PageCursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.<LocalDateTime>get("start"), cursor.getTime()),
+                cb.and(
+                        cb.equal(root.get("start"), cursor.getTime()),
+                        cb.greaterThan(root.<Long>get("id"), cursor.getId())));
+    }
+
+    /**
+     * Reuses the item fetch join of the listing query instead of adding a second join on items.
+     */
+    @SuppressWarnings("unchecked")
+    private static Join<Booking, Item> item(Root<Booking> root) {
+        return root.getFetches().stream()
+                .filter(fetch -> fetch.getAttribute().getName().equals("item"))
+                .map(fetch -> (Join<Booking, Item>) fetch)
+                .findFirst()
+                .orElseGet(() -> root.join("item"));
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.pagination.PageCursor;
 
 import java.util.List;
 
@@ -13,7 +14,13 @@ public interface BookingService {
 
     List<Booking> getAllBookingsByUserFilteredByState(String state, Long userId, Integer from, Integer size);
 
+    List<Booking> getBookingsByUserAfterCursor(String state, Long userId, PageCursor cursor, Integer size);
+
     Booking getBookingById(Long bookingId, Long userId);
 
     List<Booking> getAllBookingsByItemsOwnerFilteredByState(String state, Long userId, Integer from, Integer size);
+
+    List<Booking> getBookingsByItemsOwnerAfterCursor(String state, Long userId, PageCursor cursor, Integer size);
+
+    void checkUserExists(Long userId);
 }
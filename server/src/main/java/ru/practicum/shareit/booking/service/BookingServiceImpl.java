@@ -1,10 +1,11 @@
 package ru.practicum.shareit.booking.service;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.dto.BookingTime;
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
@@ -15,28 +16,54 @@ import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
+import ru.practicum.shareit.notification.NotificationHub;
+import ru.practicum.shareit.notification.NotificationTopic;
+import ru.practicum.shareit.outbox.model.AggregateType;
+import ru.practicum.shareit.outbox.service.OutboxService;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.START_DESC_ID_ASC;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.after;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.byBooker;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.byItemOwner;
+import static ru.practicum.shareit.booking.repository.BookingSpecifications.inState;
 
 @Service
 public class BookingServiceImpl implements BookingService {
 
+    private static final String NO_OVERLAP_CONSTRAINT = "bookings_approved_no_overlap";
+    private static final String EXCLUSION_VIOLATION_SQL_STATE = "23P01";
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final ItemBookingSummaryService summaryService;
+    private final UserExistenceCache userExistenceCache;
+    private final NotificationHub notificationHub;
+    private final OutboxService outboxService;
 
     @Autowired
     public BookingServiceImpl(BookingRepository bookingRepository,
                               ItemRepository itemRepository,
-                              UserRepository userRepository) {
+                              UserRepository userRepository,
+                              ItemBookingSummaryService summaryService,
+                              UserExistenceCache userExistenceCache,
+                              NotificationHub notificationHub,
+                              OutboxService outboxService) {
         this.bookingRepository = bookingRepository;
         this.itemRepository = itemRepository;
         this.userRepository = userRepository;
+        this.summaryService = summaryService;
+        this.userExistenceCache = userExistenceCache;
+        this.notificationHub = notificationHub;
+        this.outboxService = outboxService;
     }
 
     @Override
@@ -59,13 +86,18 @@ public class BookingServiceImpl implements BookingService {
                 new NotFoundException(String.format("User with id=%d not found", userId)));
         Booking booking = BookingMapper.toBooking(bookingDto, item, user, BookingStatus.WAITING);
         checkBookingTimeIntersection(booking, item.getId());
-        return bookingRepository.save(booking);
+        Booking addedBooking = bookingRepository.save(booking);
+        outboxService.addEvent(AggregateType.BOOKING, addedBooking.getId(), "booking-created",
+                BookingMapper.toBookingDto(addedBooking));
+        notificationHub.publishAfterCommit(NotificationTopic.BOOKINGS, item.getOwner().getId(), "booking-created",
+                BookingMapper.toBookingDto(addedBooking));
+        return addedBooking;
     }
 
     @Override
     @Transactional
     public Booking updateBookingStatus(Long bookingId, Long userId, String approved) {
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
+        Booking booking = bookingRepository.findForUpdateById(bookingId).orElseThrow(() ->
                 new NotFoundException(String.format("Booking with id=%d not found", bookingId)));
         if (booking.getStatus().equals(BookingStatus.APPROVED)) {
             throw new NotAvailableException(String.format(
@@ -74,7 +106,22 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getItem().getOwner().getId().equals(userId)) {
             boolean isApproved = Boolean.parseBoolean(approved);
             booking.setStatus(isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-            return bookingRepository.save(booking);
+            try {
+                bookingRepository.saveAndFlush(booking);
+            } catch (DataIntegrityViolationException e) {
+                if (isBookingOverlap(e)) {
+                    throw new NotAvailableException("This time is already booked");
+                }
+                throw e;
+            }
+            if (isApproved) {
+                summaryService.refreshSummaries(List.of(booking.getItem().getId()));
+            }
+            outboxService.addEvent(AggregateType.BOOKING, booking.getId(), "booking-status-changed",
+                    BookingMapper.toBookingDto(booking));
+            notificationHub.publishAfterCommit(NotificationTopic.BOOKINGS, booking.getBooker().getId(),
+                    "booking-status", BookingMapper.toBookingDto(booking));
+            return booking;
         } else {
             throw new NotFoundException(String.format(
                     "User with id=%d has no booking with id=%d", userId, bookingId));
@@ -99,85 +146,76 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional(readOnly = true)
     public List<Booking> getAllBookingsByUserFilteredByState(String state, Long userId, Integer from, Integer size) {
-        User user = userRepository.findById(userId).orElseThrow(() ->
-                new NotFoundException(String.format("User with id=%d not found", userId)));
-        BookingState bookingState = BookingState.valueOf(state);
-        List<Booking> bookings;
-        switch (bookingState) {
-            case ALL:
-                bookings = bookingRepository.findAllByBookerIdOrderByIdDesc(
-                        userId, PageRequest.of(from / size, size)).getContent();
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByItemId(
-                        userId, LocalDateTime.now(), LocalDateTime.now(),
-                        PageRequest.of(from / size, size)).getContent();
-                break;
-            case PAST:
-                bookings = bookingRepository.findAllByBookerIdAndEndBeforeOrderByItemId(
-                        userId, LocalDateTime.now(), PageRequest.of(from / size, size)).getContent();
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findAllByBookerIdAndStartAfterOrderByItemId(
-                        userId, LocalDateTime.now(), PageRequest.of(from / size, size)).getContent();
-                break;
-            default:
-                bookings = bookingRepository.findAllByBookerIdAndStatusOrderByItemId(
-                        userId, BookingStatus.valueOf(bookingState.name()),
-                        PageRequest.of(from / size, size)).getContent();
-        }
-        List<Long> bookingsIds = bookings.stream().map(Booking::getId).collect(Collectors.toList());
-        List<Item> bookingItems = itemRepository.findItemsByBookingsIds(bookingsIds);
-        for (int i = 0; i < bookings.size(); i++) {
-            bookings.get(i).setItem(bookingItems.get(i));
-            bookings.get(i).setBooker(user);
-        }
-        return bookings.stream()
-                .sorted(Comparator.comparing(Booking::getStart).reversed().thenComparing(Booking::getId))
-                .collect(Collectors.toList());
+        if (!userExistenceCache.exists(userId))
+            throw new NotFoundException(String.format("User with id=%d not found", userId));
+        return findBookings(byBooker(userId), state, null, from / size * size, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Booking> getBookingsByUserAfterCursor(String state, Long userId,
+                                                      PageCursor cursor, Integer size) {
+        if (!userExistenceCache.exists(userId))
+            throw new NotFoundException(String.format("User with id=%d not found", userId));
+        return findBookings(byBooker(userId), state, cursor, 0, size);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Booking> getAllBookingsByItemsOwnerFilteredByState(String state, Long userId,
                                                                    Integer from, Integer size) {
-        if (!userRepository.existsById(userId))
+        if (!userExistenceCache.exists(userId))
             throw new NotFoundException(String.format("User with id=%d not found", userId));
+        return findBookings(byItemOwner(userId), state, null, from / size * size, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Booking> getBookingsByItemsOwnerAfterCursor(String state, Long userId,
+                                                            PageCursor cursor, Integer size) {
+        if (!userExistenceCache.exists(userId))
+            throw new NotFoundException(String.format("User with id=%d not found", userId));
+        return findBookings(byItemOwner(userId), state, cursor, 0, size);
+    }
+
+    @Override
+    public void checkUserExists(Long userId) {
+        if (!userExistenceCache.exists(userId))
+            throw new NotFoundException(String.format("User with id=%d not found", userId));
+    }
+
+    private List<Booking> findBookings(Specification<Booking> participant, String state,
+                                       PageCursor cursor, long offset, int size) {
         BookingState bookingState = BookingState.valueOf(state);
-        switch (bookingState) {
-            case ALL:
-                return bookingRepository.findAllByItemOwnerIdOrderByStartDesc(userId,
-                                PageRequest.of(from / size, size)).getContent();
-            case CURRENT:
-                return bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                        userId, LocalDateTime.now(), LocalDateTime.now(),
-                        PageRequest.of(from / size, size)).getContent();
-            case PAST:
-                return bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(
-                        userId, LocalDateTime.now(), PageRequest.of(from / size, size)).getContent();
-            case FUTURE:
-                return bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(
-                        userId, LocalDateTime.now(), PageRequest.of(from / size, size)).getContent();
-            default:
-                return bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(
-                        userId, BookingStatus.valueOf(bookingState.name()),
-                        PageRequest.of(from / size, size)).getContent();
-        }
+        return bookingRepository.findAll(Specification.where(participant)
+                        .and(inState(bookingState, LocalDateTime.now()))
+                        .and(after(cursor)),
+                START_DESC_ID_ASC, offset, size);
     }
 
     private void checkBookingTimeIntersection(Booking booking, Long itemId) {
-        List<BookingTime> bookings = bookingRepository.findAllByItemIdAndStatus(itemId, BookingStatus.APPROVED);
-        boolean isIntersects = bookings.stream().anyMatch(bookingTime -> isBookingTimeIntersects(bookingTime, booking));
+        boolean isIntersects = bookingRepository.existsByItemIdAndStatusAndStartLessThanEqualAndEndGreaterThanEqual(
+                itemId, BookingStatus.APPROVED, booking.getEnd(), booking.getStart());
         if (isIntersects) {
             throw new NotAvailableException("This time is already booked");
         }
     }
 
-    private boolean isBookingTimeIntersects(BookingTime b1, Booking b2) {
-        LocalDateTime b1StartTime = b1.getStart();
-        LocalDateTime b2StartTime = b2.getStart();
-        LocalDateTime b1EndTime = b1.getEnd();
-        LocalDateTime b2EndTime = b2.getEnd();
-        return !b2StartTime.isAfter(b1EndTime) && !b2EndTime.isBefore(b1StartTime);
+    /**
+     * Postgres reports the exclusion constraint by SQLState only. H2 leaves the constraint name of a failed check
+     * unparsed, so the driver message is searched for it instead.
+     */
+    private static boolean isBookingOverlap(DataIntegrityViolationException e) {
+        if (!(e.getCause() instanceof ConstraintViolationException)) {
+            return false;
+        }
+        ConstraintViolationException cause = (ConstraintViolationException) e.getCause();
+        if (EXCLUSION_VIOLATION_SQL_STATE.equals(cause.getSQLState())) {
+            return true;
+        }
+        String constraint = cause.getConstraintName() != null
+                ? cause.getConstraintName()
+                : cause.getSQLException().getMessage();
+        return constraint != null && constraint.toLowerCase().contains(NO_OVERLAP_CONSTRAINT);
     }
 }
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.exception;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -19,6 +20,12 @@ public class ErrorHandler {
         return new ErrorResponse(Map.of("email", e.getMessage()));
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse concurrentUpdateHandler(ObjectOptimisticLockingFailureException e) {
+        return new ErrorResponse(Map.of("error", "The entity was changed by another request, repeat the update"));
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse notAvailableExceptionHandler(NotAvailableException e) {
@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.GetItemDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -45,7 +46,13 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public GetItemDto getItemById(@PathVariable Long itemId, @RequestHeader("X-Sharer-User-Id") Long userId) {
+    public GetItemDto getItemById(
+            @PathVariable Long itemId,
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            WebRequest request) {
+        if (request.checkNotModified(itemService.getItemVersionTag(itemId, userId))) {
+            return null;
+        }
         return itemService.getItemById(itemId, userId);
     }
 
@@ -66,6 +73,15 @@ public class ItemController {
         return ItemMapper.toItemDto(itemService.searchItems(userId, text, from, size));
     }
 
+    // Names in lexicographic order ignoring case, see ItemService.suggestItemNames
+    @GetMapping("/search/suggest")
+    public List<String> suggestItemNames(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(value = "prefix", defaultValue = "") String prefix,
+            @RequestParam(value = "size", defaultValue = "10") Integer size) {
+        return itemService.suggestItemNames(userId, prefix, size);
+    }
+
     @DeleteMapping("/{itemId}")
     public ItemDto deleteItem(@PathVariable Long itemId, @RequestHeader("X-Sharer-User-Id") Long userId) {
         return ItemMapper.toItemDto(itemService.deleteItem(itemId, userId));
@@ -10,8 +10,9 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class ItemMapper {
@@ -43,22 +44,36 @@ public class ItemMapper {
     }
 
     public static GetItemDto toGetItemDto(Item item, List<Comment> comments, List<Booking> bookings) {
-        Booking lastBooking;
-        Booking nextBooking;
+        return toGetItemDto(List.of(item), comments, bookings).get(0);
+    }
 
-        lastBooking = bookings.stream()
-                .filter(booking -> booking.getItem().getId().equals(item.getId()))
-                .filter(booking -> booking.getStart().isBefore(LocalDateTime.now()) &&
-                        booking.getStatus() == BookingStatus.APPROVED)
-                .max(Comparator.comparing(Booking::getStart))
-                .orElse(null);
-        nextBooking = bookings.stream()
-                .filter(booking -> booking.getItem().getId().equals(item.getId()))
-                .filter(booking -> booking.getStart().isAfter(LocalDateTime.now()) &&
-                        booking.getStatus() == BookingStatus.APPROVED)
-                .min(Comparator.comparing(Booking::getStart))
-                .orElse(null);
+    public static List<GetItemDto> toGetItemDto(List<Item> items, List<Comment> comments, List<Booking> bookings) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, List<Comment>> itemsComments = comments.stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+        Map<Long, Booking> lastBookings = new HashMap<>();
+        Map<Long, Booking> nextBookings = new HashMap<>();
+        for (Booking booking : bookings) {
+            if (booking.getStatus() != BookingStatus.APPROVED) {
+                continue;
+            }
+            Long itemId = booking.getItem().getId();
+            if (booking.getStart().isBefore(now)) {
+                lastBookings.merge(itemId, booking, (b1, b2) -> b2.getStart().isAfter(b1.getStart()) ? b2 : b1);
+            } else if (booking.getStart().isAfter(now)) {
+                nextBookings.merge(itemId, booking, (b1, b2) -> b2.getStart().isBefore(b1.getStart()) ? b2 : b1);
+            }
+        }
+        return items.stream()
+                .map(item -> toGetItemDto(item,
+                        itemsComments.getOrDefault(item.getId(), List.of()),
+                        lastBookings.get(item.getId()),
+                        nextBookings.get(item.getId())))
+                .collect(Collectors.toList());
+    }
 
+    private static GetItemDto toGetItemDto(Item item, List<Comment> comments,
+                                           Booking lastBooking, Booking nextBooking) {
         return GetItemDto.builder()
                 .id(item.getId())
                 .name(item.getName())
@@ -66,17 +81,10 @@ public class ItemMapper {
                 .available(item.getAvailable())
                 .lastBooking(lastBooking != null ? BookingMapper.toShortBookingDto(lastBooking) : null)
                 .nextBooking(nextBooking != null ? BookingMapper.toShortBookingDto(nextBooking) : null)
-                .comments(CommentMapper.toCommentDto(comments.stream()
-                        .filter(c -> c.getItem().getId().equals(item.getId())).collect(Collectors.toList())))
+                .comments(CommentMapper.toCommentDto(comments))
                 .build();
     }
 
-    public static List<GetItemDto> toGetItemDto(List<Item> items, List<Comment> comments, List<Booking> bookings) {
-        return items.stream()
-                .map(item -> toGetItemDto(item, comments, bookings))
-                .collect(Collectors.toList());
-    }
-
     public static List<ItemDto> toItemDto(List<Item> items) {
         return items.stream()
                 .map(ItemMapper::toItemDto)
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.Booking;
+
+import javax.persistence.*;
+
+/**
+ * Last and next approved bookings of an item, maintained on booking approval and by a scheduled roll-over.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "item_booking_summaries", schema = "public")
+public class ItemBookingSummary {
+
+    @Id
+    @Column(name = "id_item")
+    private Long itemId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_last_booking")
+    private Booking lastBooking;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_next_booking")
+    private Booking nextBooking;
+}
@@ -14,4 +14,10 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
            "join fetch c.item as i " +
            "where i.id in (:itemsIds)")
     List<Comment> getCommentsByItemIds(@Param("itemsIds") List<Long> itemsIds);
+
+    @Query("select max(c.id) as lastCommentId, sum(a.version) as authorsVersionSum " +
+           "from Comment as c " +
+           "join c.author as a " +
+           "where c.item.id = :itemId")
+    ItemCommentsVersionView getItemCommentsVersion(@Param("itemId") Long itemId);
 }
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    @Query("select s " +
+           "from ItemBookingSummary as s " +
+           "left join fetch s.lastBooking " +
+           "left join fetch s.nextBooking " +
+           "where s.itemId in (:itemIds)")
+    List<ItemBookingSummary> findAllWithBookingsByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
+
+    @Query("select s.itemId " +
+           "from ItemBookingSummary as s " +
+           "join s.nextBooking as b " +
+           "where b.start <= :now " +
+           "order by s.itemId")
+    List<Long> findItemIdsWithStartedNextBooking(@Param("now") LocalDateTime now, Pageable pageable);
+}
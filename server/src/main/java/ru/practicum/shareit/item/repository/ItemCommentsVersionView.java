@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item.repository;
+
+public interface ItemCommentsVersionView {
+
+    Long getLastCommentId();
+
+    Long getAuthorsVersionSum();
+}
@@ -3,33 +3,43 @@ package ru.practicum.shareit.item.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositoryCustom {
 
     Optional<Item> findByIdAndOwnerId(Long itemId, Long ownerId);
 
-    Page<Item> findAllByOwnerIdOrderByIdAsc(Long ownerId, Pageable pageable);
+    /**
+     * Locks the item row, for changes of the item that do not write the row itself.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Item> findForUpdateById(Long itemId);
 
-    @Query(value = "select * " +
-            "from items as i " +
-            "where i.available = true " +
-            "and (lower(i.description) like concat('%',:keyword,'%') " +
-            "or lower(i.name) like concat('%',:keyword,'%'))",
-            nativeQuery = true)
-    Page<Item> searchItems(@Param("keyword") String keyword, Pageable pageable);
+    /**
+     * Locks the item rows in id order, so transactions locking overlapping sets cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Item> findAllForUpdateByIdInOrderByIdAsc(Collection<Long> itemIds);
 
-    @Query(value = "select i.* " +
-            "from items as i " +
-            "join bookings as b on i.id_item = b.id_item " +
-            "where b.id_booking in (:ids)", nativeQuery = true)
-    List<Item> findItemsByBookingsIds(@Param("ids") Collection<Long> ids);
+    Page<Item> findAllByOwnerIdOrderByIdAsc(Long ownerId, Pageable pageable);
 
     List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
+
+    @Query("select i.id as id, i.name as name " +
+           "from Item as i " +
+           "where i.available = true")
+    List<ItemNameView> findAllAvailableNames();
+
+    @Query("select count(i) as itemsCount, max(i.id) as lastItemId, sum(i.version) as versionSum " +
+           "from Item as i " +
+           "where i.request.id = :requestId")
+    RequestItemsVersionView getRequestItemsVersion(@Param("requestId") Long requestId);
 }
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Ranked substring search of available items, name matches first and ties ordered by id so pages are stable.
+ * The text is matched literally, LIKE wildcards in it are escaped.
+ * On Postgres the LIKE predicates are served by pg_trgm GIN indexes and matches within a group are additionally
+ * ranked by the items.search_vector full-text weight.
+ */
+public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+
+    private static final String POSTGRESQL = "postgresql";
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private static final String SUBSTRING_PREDICATE = "where i.available = true " +
+            "and (lower(i.name) like concat('%', :text, '%') escape '\\' " +
+            "or lower(i.description) like concat('%', :text, '%') escape '\\') " +
+            "order by case when lower(i.name) like concat('%', :text, '%') escape '\\' then 0 else 1 end, ";
+
+    private static final String RANKED_SEARCH_QUERY = "select i.* " +
+            "from items as i " +
+            SUBSTRING_PREDICATE +
+            "ts_rank(i.search_vector, to_tsquery('simple', :query)) desc, i.id_item";
+
+    private static final String SEARCH_QUERY = "select i.* " +
+            "from items as i " +
+            SUBSTRING_PREDICATE +
+            "i.id_item";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final boolean rankedSearch;
+
+    public ItemRepositoryCustomImpl(@Value("${spring.sql.init.platform:}") String platform) {
+        this.rankedSearch = POSTGRESQL.equals(platform);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Item> search(String text, long offset, int limit) {
+        Query query = em.createNativeQuery(rankedSearch ? RANKED_SEARCH_QUERY : SEARCH_QUERY, Item.class)
+                .setParameter("text", escapeLike(text.toLowerCase()));
+        if (rankedSearch) {
+            query.setParameter("query", toPrefixTsQuery(text));
+        }
+        return query
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private static String escapeLike(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (char c : text.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private static String toPrefixTsQuery(String text) {
+        return Arrays.stream(text.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" | "));
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.repository;
+
+public interface RequestItemsVersionView {
+
+    Long getItemsCount();
+
+    Long getLastItemId();
+
+    Long getVersionSum();
+}
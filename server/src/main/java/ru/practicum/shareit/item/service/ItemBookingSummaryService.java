@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemBookingSummaryService {
+
+    List<Booking> getLastAndNextBookings(Collection<Long> itemIds);
+
+    void refreshSummaries(Collection<Long> itemIds);
+
+    void rollStartedBookings();
+}
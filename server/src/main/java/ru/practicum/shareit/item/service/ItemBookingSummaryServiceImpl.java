@@ -0,0 +1,111 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class ItemBookingSummaryServiceImpl implements ItemBookingSummaryService {
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final int rollBatchSize;
+
+    @Autowired
+    public ItemBookingSummaryServiceImpl(ItemBookingSummaryRepository summaryRepository,
+                                         BookingRepository bookingRepository,
+                                         ItemRepository itemRepository,
+                                         @Value("${shareit.item-booking-summary.roll-batch-size:500}")
+                                         int rollBatchSize) {
+        this.summaryRepository = summaryRepository;
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.rollBatchSize = rollBatchSize;
+    }
+
+    /**
+     * Items without a summary, or whose next booking has already started, fall back to the booking query.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Booking> getLastAndNextBookings(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>();
+        Set<Long> notSummarizedIds = new HashSet<>(itemIds);
+        for (ItemBookingSummary summary : summaryRepository.findAllWithBookingsByItemIdIn(itemIds)) {
+            Booking nextBooking = summary.getNextBooking();
+            if (nextBooking != null && !nextBooking.getStart().isAfter(now)) {
+                continue;
+            }
+            notSummarizedIds.remove(summary.getItemId());
+            if (summary.getLastBooking() != null) bookings.add(summary.getLastBooking());
+            if (nextBooking != null) bookings.add(nextBooking);
+        }
+        if (!notSummarizedIds.isEmpty()) {
+            bookings.addAll(bookingRepository.findLastAndNextApprovedBookings(notSummarizedIds, now));
+        }
+        return bookings;
+    }
+
+    /**
+     * Locks the items first, so concurrent refreshes of an item run one after another and each one reads
+     * the bookings and the summary row committed by the previous one.
+     */
+    @Override
+    @Transactional
+    public void refreshSummaries(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        itemRepository.findAllForUpdateByIdInOrderByIdAsc(itemIds);
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookingSummary> summaries = summaryRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        for (Long itemId : itemIds) {
+            ItemBookingSummary summary = summaries.computeIfAbsent(itemId,
+                    id -> ItemBookingSummary.builder().itemId(id).build());
+            summary.setLastBooking(null);
+            summary.setNextBooking(null);
+        }
+        for (Booking booking : bookingRepository.findLastAndNextApprovedBookings(itemIds, now)) {
+            ItemBookingSummary summary = summaries.get(booking.getItem().getId());
+            if (booking.getStart().isBefore(now)) {
+                summary.setLastBooking(booking);
+            } else {
+                summary.setNextBooking(booking);
+            }
+        }
+        summaryRepository.saveAll(summaries.values());
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(cron = "${shareit.item-booking-summary.roll-cron:0 * * * * *}")
+    public void rollStartedBookings() {
+        List<Long> itemIds = summaryRepository.findItemIdsWithStartedNextBooking(LocalDateTime.now(),
+                PageRequest.of(0, rollBatchSize));
+        refreshSummaries(itemIds);
+    }
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemNameView;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory sorted index of available item names for prefix suggestions.
+ * Suggestions are ordered lexicographically ignoring case. Names differing only in case are suggested once,
+ * as spelled by the item with the lowest id.
+ * It is loaded on startup, updated after item changes commit and rebuilt periodically to pick up
+ * changes made outside the item service. Updates arriving during a rebuild are replayed on the rebuilt index,
+ * since the rebuild may have read the items before they committed.
+ */
+@Component
+public class ItemNameSuggester {
+
+    private static final char ID_SEPARATOR = '\u0000';
+
+    private final ItemRepository itemRepository;
+    private volatile NameIndex index = new NameIndex();
+    private volatile Queue<Consumer<NameIndex>> rebuildChanges;
+
+    @Autowired
+    public ItemNameSuggester(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String lowerPrefix = prefix.toLowerCase();
+        Map<String, String> names = new LinkedHashMap<>();
+        for (String name : index.names.subMap(lowerPrefix, lowerPrefix + Character.MAX_VALUE).values()) {
+            if (names.size() >= limit) {
+                break;
+            }
+            names.putIfAbsent(name.toLowerCase(), name);
+        }
+        return new ArrayList<>(names.values());
+    }
+
+    public void onItemSaved(Item item) {
+        Long itemId = item.getId();
+        String name = item.getName();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        afterCommit(() -> apply(currentIndex -> {
+            if (available) {
+                currentIndex.put(itemId, name);
+            } else {
+                currentIndex.remove(itemId);
+            }
+        }));
+    }
+
+    public void onItemDeleted(Long itemId) {
+        afterCommit(() -> apply(currentIndex -> currentIndex.remove(itemId)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${shareit.item-name-suggester.rebuild-cron:0 */10 * * * *}")
+    public synchronized void rebuild() {
+        Queue<Consumer<NameIndex>> changes = new ConcurrentLinkedQueue<>();
+        rebuildChanges = changes;
+        try {
+            NameIndex newIndex = new NameIndex();
+            for (ItemNameView item : itemRepository.findAllAvailableNames()) {
+                newIndex.put(item.getId(), item.getName());
+            }
+            index = newIndex;
+            // Replay changes that may have reached only the replaced index. Changes keep being recorded until
+            // the queue is drained, so an older change is never replayed over a newer one
+            Consumer<NameIndex> change;
+            while ((change = changes.poll()) != null) {
+                change.accept(newIndex);
+            }
+        } finally {
+            rebuildChanges = null;
+        }
+    }
+
+    // Records the change before reading the index, so a change that reaches the replaced index is replayed
+    private void apply(Consumer<NameIndex> change) {
+        Queue<Consumer<NameIndex>> changes = rebuildChanges;
+        if (changes != null) {
+            changes.add(change);
+        }
+        change.accept(index);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static class NameIndex {
+        private final NavigableMap<String, String> names = new ConcurrentSkipListMap<>();
+        private final Map<Long, String> keys = new ConcurrentHashMap<>();
+
+        void put(Long itemId, String name) {
+            // Zero padded, so equal names are ordered by id
+            String key = name.toLowerCase() + ID_SEPARATOR + String.format("%019d", itemId);
+            String previousKey = keys.put(itemId, key);
+            if (previousKey != null && !previousKey.equals(key)) {
+                names.remove(previousKey);
+            }
+            names.put(key, name);
+        }
+
+        void remove(Long itemId) {
+            String key = keys.remove(itemId);
+            if (key != null) {
+                names.remove(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Caches item ids of search result pages by lowercase text and page.
+ * A change of an available item's name or description drops every cached text contained in its old or new values.
+ * Changes of a transaction are dropped in one pass once it completes, and until then its own searches skip the cache.
+ * A page loaded concurrently with a pass is not kept, so a search never keeps serving the state before a committed
+ * change.
+ */
+@Component
+public class ItemSearchCache {
+
+    private final ItemRepository itemRepository;
+    private final Cache<SearchKey, List<Long>> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public ItemSearchCache(ItemRepository itemRepository, MeterRegistry meterRegistry,
+                           @Value("${shareit.item-search-cache.maximum-size:10000}") long maximumSize,
+                           @Value("${shareit.item-search-cache.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.itemRepository = itemRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemSearch");
+    }
+
+    public List<Item> search(String text, long offset, int limit) {
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return itemRepository.search(text, offset, limit);
+        }
+        SearchKey key = new SearchKey(text.toLowerCase(), offset, limit);
+        List<Long> itemIds = cache.getIfPresent(key);
+        if (itemIds != null) {
+            return findAllInOrder(itemIds);
+        }
+        long invalidationsBefore = invalidations.get();
+        List<Item> items = itemRepository.search(text, offset, limit);
+        if (invalidationsBefore == invalidations.get()) {
+            cache.put(key, items.stream().map(Item::getId).collect(Collectors.toList()));
+            // A pass started after the check may have missed the entry
+            if (invalidationsBefore != invalidations.get()) {
+                cache.invalidate(key);
+            }
+        }
+        return items;
+    }
+
+    public void invalidate(Item item) {
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            invalidate(List.of(item.getName().toLowerCase(), item.getDescription().toLowerCase()));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void invalidate(List<String> values) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateMatching(values);
+            return;
+        }
+        List<String> pendingValues = (List<String>) TransactionSynchronizationManager.getResource(this);
+        if (pendingValues == null) {
+            List<String> transactionValues = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, transactionValues);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ItemSearchCache.this);
+                    invalidateMatching(transactionValues);
+                }
+            });
+            pendingValues = transactionValues;
+        }
+        pendingValues.addAll(values);
+    }
+
+    private void invalidateMatching(List<String> values) {
+        invalidations.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> values.stream().anyMatch(value -> value.contains(key.text)));
+    }
+
+    private List<Item> findAllInOrder(List<Long> itemIds) {
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return itemIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class SearchKey {
+        private final String text;
+        private final long offset;
+        private final int limit;
+    }
+}
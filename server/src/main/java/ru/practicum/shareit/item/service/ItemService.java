@@ -14,10 +14,18 @@ public interface ItemService {
 
     GetItemDto getItemById(Long itemId, Long userId);
 
+    String getItemVersionTag(Long itemId, Long userId);
+
     List<GetItemDto> getUserItems(Long userId, Integer from, Integer size);
 
     List<Item> searchItems(Long userId, String text, Integer from, Integer size);
 
+    /**
+     * Names of available items starting with the prefix, ignoring case. Names are ordered lexicographically
+     * ignoring case and names differing only in case are returned once.
+     */
+    List<String> suggestItemNames(Long userId, String prefix, Integer size);
+
     Item deleteItem(Long itemId, Long userId);
 
     Comment addCommentToItem(Long itemId, Long userId, Comment comment);
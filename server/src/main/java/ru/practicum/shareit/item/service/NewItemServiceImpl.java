@@ -10,18 +10,26 @@ import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.GetItemDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemCommentsVersionView;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.notification.NotificationHub;
+import ru.practicum.shareit.notification.NotificationTopic;
+import ru.practicum.shareit.outbox.model.AggregateType;
+import ru.practicum.shareit.outbox.service.OutboxService;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -33,17 +41,35 @@ public class NewItemServiceImpl implements ItemService {
     private final ItemRequestRepository requestRepository;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
+    private final ItemBookingSummaryService summaryService;
+    private final ItemSearchCache searchCache;
+    private final ItemNameSuggester nameSuggester;
+    private final UserExistenceCache userExistenceCache;
+    private final NotificationHub notificationHub;
+    private final OutboxService outboxService;
 
     @Autowired
     public NewItemServiceImpl(ItemRepository itemRepository,
                               UserRepository userRepository, ItemRequestRepository requestRepository,
                               CommentRepository commentRepository,
-                              BookingRepository bookingRepository) {
+                              BookingRepository bookingRepository,
+                              ItemBookingSummaryService summaryService,
+                              ItemSearchCache searchCache,
+                              ItemNameSuggester nameSuggester,
+                              UserExistenceCache userExistenceCache,
+                              NotificationHub notificationHub,
+                              OutboxService outboxService) {
         this.itemRepository = itemRepository;
         this.userRepository = userRepository;
         this.requestRepository = requestRepository;
         this.commentRepository = commentRepository;
         this.bookingRepository = bookingRepository;
+        this.summaryService = summaryService;
+        this.searchCache = searchCache;
+        this.nameSuggester = nameSuggester;
+        this.userExistenceCache = userExistenceCache;
+        this.notificationHub = notificationHub;
+        this.outboxService = outboxService;
     }
 
     @Override
@@ -58,49 +84,103 @@ public class NewItemServiceImpl implements ItemService {
                     new NotFoundException(String.format("Request with id=%d not found", requestId)));
             item.setRequest(request);
         }
-        return itemRepository.save(item);
+        Item addedItem = itemRepository.save(item);
+        outboxService.addEvent(AggregateType.ITEM, addedItem.getId(), "item-created", ItemMapper.toItemDto(addedItem));
+        searchCache.invalidate(addedItem);
+        nameSuggester.onItemSaved(addedItem);
+        if (addedItem.getRequest() != null) {
+            notificationHub.publishAfterCommit(NotificationTopic.ITEM_OFFERS,
+                    addedItem.getRequest().getRequestor().getId(), "item-offer",
+                    ItemMapper.toGetItemRequestItemDto(addedItem));
+        }
+        return addedItem;
     }
 
     @Override
     @Transactional
     public Item updateItem(Item item, Long itemId, Long userId) {
-        if (!userRepository.existsById(userId))
+        if (!userExistenceCache.exists(userId))
             throw new NotFoundException(String.format("User with id=%d not found", userId));
         Item updatedItem = itemRepository.findByIdAndOwnerId(itemId, userId).orElseThrow(() ->
                 new NotFoundException(String.format("User with id=%d does not have item with id=%d", userId, itemId)));
+        Item previousItem = Item.builder()
+                .name(updatedItem.getName())
+                .description(updatedItem.getDescription())
+                .available(updatedItem.getAvailable())
+                .build();
         if (item.getName() != null) updatedItem.setName(item.getName());
         if (item.getDescription() != null) updatedItem.setDescription(item.getDescription());
         if (item.getAvailable() != null) updatedItem.setAvailable(item.getAvailable());
-        return itemRepository.save(updatedItem);
+        boolean isChanged = !previousItem.getName().equals(updatedItem.getName())
+                || !previousItem.getDescription().equals(updatedItem.getDescription())
+                || !previousItem.getAvailable().equals(updatedItem.getAvailable());
+        if (isChanged) {
+            searchCache.invalidate(previousItem);
+            searchCache.invalidate(updatedItem);
+            nameSuggester.onItemSaved(updatedItem);
+        }
+        Item savedItem = itemRepository.save(updatedItem);
+        // Unchanged items are not written, so there is no row lock to order the event by
+        if (isChanged) {
+            outboxService.addEvent(AggregateType.ITEM, itemId, "item-updated", ItemMapper.toItemDto(savedItem));
+        }
+        return savedItem;
     }
 
     @Override
     @Transactional(readOnly = true)
     public GetItemDto getItemById(Long itemId, Long userId) {
-        if (userRepository.existsById(userId)) {
+        if (userExistenceCache.exists(userId)) {
             Item item =  itemRepository.findById(itemId).orElseThrow(() ->
                     new NotFoundException(String.format("Item with id=%d not found", itemId)));
             List<Comment> comments = commentRepository.getCommentsByItemIds(List.of(itemId));
             List<Booking> bookings = new ArrayList<>();
             if (userId.equals(item.getOwner().getId()))
-                bookings = bookingRepository.findAllByItemIdInAndItemOwnerId(List.of(itemId), userId);
+                bookings = summaryService.getLastAndNextBookings(List.of(itemId));
             return ItemMapper.toGetItemDto(item, comments, bookings);
         } else {
             throw new NotFoundException(String.format("User with id=%d not found", userId));
         }
     }
 
+    /**
+     * Builds a tag that changes whenever the item view returned by getItemById changes: the item version,
+     * the latest comment, the versions of comment authors whose names are shown and, for the owner, which approved bookings are currently the last and the next one.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String getItemVersionTag(Long itemId, Long userId) {
+        if (!userExistenceCache.exists(userId))
+            throw new NotFoundException(String.format("User with id=%d not found", userId));
+        Item item = itemRepository.findById(itemId).orElseThrow(() ->
+                new NotFoundException(String.format("Item with id=%d not found", itemId)));
+        ItemCommentsVersionView comments = commentRepository.getItemCommentsVersion(itemId);
+        StringBuilder tag = new StringBuilder()
+                .append(item.getId()).append('-').append(item.getVersion())
+                .append('-').append(comments.getLastCommentId() != null ? comments.getLastCommentId() : 0)
+                .append('-').append(comments.getAuthorsVersionSum() != null ? comments.getAuthorsVersionSum() : 0);
+        if (userId.equals(item.getOwner().getId())) {
+            LocalDateTime now = LocalDateTime.now();
+            summaryService.getLastAndNextBookings(List.of(itemId)).stream()
+                    .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                    .sorted(Comparator.comparing(Booking::getId))
+                    .forEach(booking -> tag.append(booking.getStart().isBefore(now) ? "-l" : "-n")
+                            .append(booking.getId()));
+        }
+        return tag.toString();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<GetItemDto> getUserItems(Long userId, Integer from, Integer size) {
-        if (userRepository.existsById(userId)) {
+        if (userExistenceCache.exists(userId)) {
             List<Item> userItems = itemRepository.findAllByOwnerIdOrderByIdAsc(userId,
                     PageRequest.of(from / size, size)).getContent();
             List<Long> userItemsIds = userItems.stream()
                     .map(Item::getId)
                     .collect(Collectors.toList());
             List<Comment> comments = commentRepository.getCommentsByItemIds(userItemsIds);
-            List<Booking> bookings = bookingRepository.findAllByItemIdInAndItemOwnerId(userItemsIds, userId);
+            List<Booking> bookings = summaryService.getLastAndNextBookings(userItemsIds);
             return ItemMapper.toGetItemDto(userItems, comments, bookings);
         } else {
             throw new NotFoundException(String.format("User with id=%d not found", userId));
@@ -111,10 +191,9 @@ public class NewItemServiceImpl implements ItemService {
     @Transactional(readOnly = true)
     public List<Item> searchItems(Long userId, String text, Integer from, Integer size) {
         List<Item> searchedList = new ArrayList<>();
-        if (userRepository.existsById(userId)) {
+        if (userExistenceCache.exists(userId)) {
             if (!text.isEmpty()) {
-                searchedList = itemRepository.searchItems(text.toLowerCase(),
-                        PageRequest.of(from / size, size)).getContent();
+                searchedList = searchCache.search(text, from / size * size, size);
             }
         } else {
             throw new NotFoundException(String.format("User with id=%d not found", userId));
@@ -122,6 +201,14 @@ public class NewItemServiceImpl implements ItemService {
         return searchedList;
     }
 
+    @Override
+    public List<String> suggestItemNames(Long userId, String prefix, Integer size) {
+        if (!userExistenceCache.exists(userId)) {
+            throw new NotFoundException(String.format("User with id=%d not found", userId));
+        }
+        return prefix.isEmpty() ? List.of() : nameSuggester.suggest(prefix, size);
+    }
+
     @Override
     @Transactional
     public Item deleteItem(Long itemId, Long userId) {
@@ -131,6 +218,9 @@ public class NewItemServiceImpl implements ItemService {
                 new NotFoundException(String.format("User with id=%d does not have item with id=%d", userId, itemId)));
         user.getItems().remove(removedItem);
         itemRepository.deleteById(itemId);
+        outboxService.addEvent(AggregateType.ITEM, itemId, "item-deleted", ItemMapper.toItemDto(removedItem));
+        searchCache.invalidate(removedItem);
+        nameSuggester.onItemDeleted(itemId);
         return removedItem;
     }
 
@@ -141,10 +231,14 @@ public class NewItemServiceImpl implements ItemService {
                 userId, itemId, BookingStatus.APPROVED, LocalDateTime.now()).stream().findFirst().orElseThrow(() ->
                 new NotAvailableException(String.format("Not available comment for user with id=%d", userId)));
         User user = booking.getBooker();
-        Item item = booking.getItem();
+        // A comment does not write the item row, the lock orders its event among the item's changes
+        Item item = itemRepository.findForUpdateById(itemId).orElseThrow(() ->
+                new NotFoundException(String.format("Item with id=%d not found", itemId)));
         comment.setItem(item);
         comment.setAuthor(user);
         comment.setCreationDate(LocalDateTime.now());
-        return commentRepository.save(comment);
+        Comment addedComment = commentRepository.save(comment);
+        outboxService.addEvent(AggregateType.ITEM, itemId, "comment-added", CommentMapper.toCommentDto(addedComment));
+        return addedComment;
     }
 }
@@ -0,0 +1,222 @@
+package ru.practicum.shareit.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process fan-out of server-sent events to users subscribed to a topic. Connections are held by async
+ * servlet requests, not threads; a small pool writes the events. Every subscriber has a bounded queue, when a
+ * slow subscriber falls behind its oldest events are dropped, so publishers never wait for it.
+ * Subscriptions are completed when the context stops, before the web server closes their connections.
+ */
+@Slf4j
+@Component
+public class NotificationHub implements SmartLifecycle {
+
+    private final ConcurrentMap<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribersCount = new AtomicInteger();
+    private final ExecutorService sender;
+    private final Counter droppedEvents;
+    private final int bufferSize;
+    private final long emitterTimeout;
+    private volatile boolean running;
+
+    @Autowired
+    public NotificationHub(MeterRegistry meterRegistry,
+                           @Value("${shareit.notifications.buffer-size:100}") int bufferSize,
+                           @Value("${shareit.notifications.sender-threads:2}") int senderThreads,
+                           @Value("${shareit.notifications.emitter-timeout:30m}") Duration emitterTimeout) {
+        this.bufferSize = bufferSize;
+        this.emitterTimeout = emitterTimeout.toMillis();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "notification-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.droppedEvents = Counter.builder("notifications.dropped")
+                .description("Events dropped because a subscriber fell behind")
+                .register(meterRegistry);
+        meterRegistry.gauge("notifications.subscribers", subscribersCount);
+    }
+
+    public SseEmitter subscribe(String topic, Long userId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeout);
+        if (!running) {
+            emitter.complete();
+            return emitter;
+        }
+        Subscription subscription = new Subscription(emitter);
+        String key = key(topic, userId);
+        subscriptions.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscription);
+        subscribersCount.incrementAndGet();
+        Runnable unsubscribe = () -> unsubscribe(key, subscription);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+        // Flushes the response headers, so clients know the subscription is registered
+        subscription.enqueue(SseEmitter.event().comment("subscribed"));
+        return emitter;
+    }
+
+    /**
+     * Sends the event once the current transaction commits, or at once outside of a transaction.
+     * The payload is serialized later on a sender thread, so it must not be a lazy-loading entity.
+     */
+    public void publishAfterCommit(String topic, Long userId, String eventName, Object payload) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(topic, userId, eventName, payload);
+                }
+            });
+        } else {
+            publish(topic, userId, eventName, payload);
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies and finds the ones closed by clients.
+     */
+    @Scheduled(cron = "${shareit.notifications.heartbeat-cron}")
+    public void sendHeartbeat() {
+        if (!running) {
+            return;
+        }
+        subscriptions.values().forEach(topicSubscriptions -> topicSubscriptions
+                .forEach(subscription -> subscription.enqueue(SseEmitter.event().comment("heartbeat"))));
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    /**
+     * Runs in the last phase to stop, so before the web server: completing an emitter writes to its connection.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        subscriptions.values().forEach(topicSubscriptions -> topicSubscriptions.forEach(subscription -> {
+            try {
+                subscription.emitter.complete();
+            } catch (RuntimeException e) {
+                log.debug("Subscription not completed: {}", e.getMessage());
+            }
+        }));
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    private void publish(String topic, Long userId, String eventName, Object payload) {
+        if (!running) {
+            return;
+        }
+        Set<Subscription> topicSubscriptions = subscriptions.get(key(topic, userId));
+        if (topicSubscriptions != null) {
+            topicSubscriptions.forEach(subscription -> subscription.enqueue(SseEmitter.event()
+                    .name(eventName)
+                    .data(payload, MediaType.APPLICATION_JSON)));
+        }
+    }
+
+    private void unsubscribe(String key, Subscription subscription) {
+        subscriptions.computeIfPresent(key, (k, topicSubscriptions) -> {
+            if (topicSubscriptions.remove(subscription)) {
+                subscribersCount.decrementAndGet();
+            }
+            return topicSubscriptions.isEmpty() ? null : topicSubscriptions;
+        });
+    }
+
+    private static String key(String topic, Long userId) {
+        return topic + ':' + userId;
+    }
+
+    private class Subscription {
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        Subscription(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            while (!queue.offer(event)) {
+                if (queue.poll() != null) {
+                    droppedEvents.increment();
+                }
+            }
+            scheduleSending();
+        }
+
+        private void scheduleSending() {
+            if (sending.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::send);
+                } catch (RejectedExecutionException e) {
+                    // Sender pool is shut down, the event is not delivered
+                    sending.set(false);
+                }
+            }
+        }
+
+        private void send() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while ((event = queue.poll()) != null) {
+                    emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Subscriber disconnected: {}", e.getMessage());
+                queue.clear();
+                emitter.completeWithError(e);
+            } finally {
+                sending.set(false);
+            }
+            if (!queue.isEmpty()) {
+                scheduleSending();
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.notification;
+
+public final class NotificationTopic {
+
+    /**
+     * Items added in answer to the subscriber's item requests.
+     */
+    public static final String ITEM_OFFERS = "item-offers";
+
+    /**
+     * New bookings of the subscriber's items and status changes of the subscriber's bookings.
+     */
+    public static final String BOOKINGS = "bookings";
+
+    private NotificationTopic() {
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.outbox.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.outbox.model.AggregateType;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Builder
+@ToString
+public class ChangeEventDto {
+    private Long id;
+    private AggregateType aggregateType;
+    private Long aggregateId;
+    private String type;
+    private LocalDateTime created;
+    @JsonRawValue
+    private String payload;
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.outbox.mapper;
+
+import ru.practicum.shareit.outbox.dto.ChangeEventDto;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class OutboxEventMapper {
+
+    public static ChangeEventDto toChangeEventDto(OutboxEvent event) {
+        return ChangeEventDto.builder()
+                .id(event.getId())
+                .aggregateType(event.getAggregateType())
+                .aggregateId(event.getAggregateId())
+                .type(event.getEventType())
+                .created(event.getCreated())
+                .payload(event.getPayload())
+                .build();
+    }
+
+    public static List<ChangeEventDto> toChangeEventDto(List<OutboxEvent> events) {
+        return events.stream()
+                .map(OutboxEventMapper::toChangeEventDto)
+                .collect(Collectors.toList());
+    }
+}
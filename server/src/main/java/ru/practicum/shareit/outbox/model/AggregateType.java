@@ -0,0 +1,7 @@
+package ru.practicum.shareit.outbox.model;
+
+public enum AggregateType {
+    BOOKING,
+    ITEM,
+    REQUEST
+}
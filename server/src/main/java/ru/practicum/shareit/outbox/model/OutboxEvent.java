@@ -0,0 +1,45 @@
+package ru.practicum.shareit.outbox.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Change of a booking, item or request, stored in the transaction that made it and removed once relayed.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "outbox_events", schema = "public")
+public class OutboxEvent {
+
+    @Id
+    @Column(name = "id_event")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "aggregate_type")
+    private AggregateType aggregateType;
+
+    @Column(name = "id_aggregate")
+    private Long aggregateId;
+
+    @Column(name = "event_type")
+    private String eventType;
+
+    /**
+     * JSON of the aggregate as it was after the change.
+     */
+    @Column
+    private String payload;
+
+    @Column(name = "creation_date")
+    private LocalDateTime created;
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.outbox.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Oldest events, locked so that relays of several server instances take turns instead of
+     * publishing the same events out of order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e " +
+           "from OutboxEvent as e " +
+           "order by e.id")
+    List<OutboxEvent> findOldestForUpdate(Pageable pageable);
+}
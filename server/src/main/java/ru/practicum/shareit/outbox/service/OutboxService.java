@@ -0,0 +1,10 @@
+package ru.practicum.shareit.outbox.service;
+
+import ru.practicum.shareit.outbox.model.AggregateType;
+
+public interface OutboxService {
+
+    void addEvent(AggregateType aggregateType, Long aggregateId, String eventType, Object payload);
+
+    void relayEvents();
+}
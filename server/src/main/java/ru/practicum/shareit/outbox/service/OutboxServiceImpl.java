@@ -0,0 +1,91 @@
+package ru.practicum.shareit.outbox.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.outbox.mapper.OutboxEventMapper;
+import ru.practicum.shareit.outbox.model.AggregateType;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+import ru.practicum.shareit.outbox.sink.ChangeEventSink;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class OutboxServiceImpl implements OutboxService {
+
+    private final OutboxEventRepository outboxRepository;
+    private final ChangeEventSink sink;
+    private final ObjectMapper objectMapper;
+    private final Counter publishedEvents;
+    private final int relayBatchSize;
+
+    @Autowired
+    public OutboxServiceImpl(OutboxEventRepository outboxRepository,
+                             ChangeEventSink sink,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${shareit.outbox.relay-batch-size:500}") int relayBatchSize) {
+        this.outboxRepository = outboxRepository;
+        this.sink = sink;
+        this.objectMapper = objectMapper;
+        this.publishedEvents = Counter.builder("outbox.published")
+                .description("Change events handed over to the sink")
+                .register(meterRegistry);
+        this.relayBatchSize = relayBatchSize;
+    }
+
+    /**
+     * The caller must hold a lock on the aggregate row, taken by a locking read or by a write of the row.
+     * Pending writes are flushed first, so the lock is held before the event gets its id. Events of one aggregate
+     * are then numbered in commit order.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addEvent(AggregateType aggregateType, Long aggregateId, String eventType, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        outboxRepository.flush();
+        outboxRepository.save(OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .eventType(eventType)
+                .payload(json)
+                .created(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Publishes the oldest events and deletes them in one transaction. When the sink or the commit fails the
+     * events stay and are published again on the next run.
+     */
+    @Override
+    @Transactional
+    @Scheduled(cron = "${shareit.outbox.relay-cron:* * * * * *}")
+    public void relayEvents() {
+        List<OutboxEvent> events = outboxRepository.findOldestForUpdate(PageRequest.of(0, relayBatchSize));
+        if (events.isEmpty()) {
+            return;
+        }
+        sink.publish(OutboxEventMapper.toChangeEventDto(events));
+        outboxRepository.deleteAllByIdInBatch(events.stream()
+                .map(OutboxEvent::getId)
+                .collect(Collectors.toList()));
+        publishedEvents.increment(events.size());
+    }
+}
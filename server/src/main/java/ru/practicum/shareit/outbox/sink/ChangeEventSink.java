@@ -0,0 +1,15 @@
+package ru.practicum.shareit.outbox.sink;
+
+import ru.practicum.shareit.outbox.dto.ChangeEventDto;
+
+import java.util.List;
+
+/**
+ * Destination of relayed change events, chosen with the shareit.outbox.sink property.
+ * A batch counts as delivered only when publish returns; on an exception the whole batch is published again,
+ * so consumers should skip event ids they have already seen.
+ */
+public interface ChangeEventSink {
+
+    void publish(List<ChangeEventDto> events);
+}
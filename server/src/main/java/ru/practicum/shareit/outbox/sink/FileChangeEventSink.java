@@ -0,0 +1,77 @@
+package ru.practicum.shareit.outbox.sink;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.outbox.dto.ChangeEventDto;
+
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends events to a local file, one JSON object per line. Every batch is written with a single channel write
+ * and forced to disk before it counts as delivered.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.outbox.sink", havingValue = "file", matchIfMissing = true)
+public class FileChangeEventSink implements ChangeEventSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+    private FileChannel channel;
+
+    @Autowired
+    public FileChangeEventSink(ObjectMapper objectMapper,
+                               @Value("${shareit.outbox.file-sink.path:outbox/change-events.log}") Path path) {
+        this.objectMapper = objectMapper;
+        this.path = path;
+    }
+
+    @Override
+    public synchronized void publish(List<ChangeEventDto> events) {
+        try {
+            ByteArrayOutputStream lines = new ByteArrayOutputStream();
+            for (ChangeEventDto event : events) {
+                objectMapper.writeValue(lines, event);
+                lines.write('\n');
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            FileChannel fileChannel = getChannel();
+            while (buffer.hasRemaining()) {
+                fileChannel.write(buffer);
+            }
+            fileChannel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Change events not written to " + path, e);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private FileChannel getChannel() throws IOException {
+        if (channel == null) {
+            Path directory = path.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+}
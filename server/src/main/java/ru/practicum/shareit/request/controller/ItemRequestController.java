@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -9,6 +10,11 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.notification.NotificationHub;
+import ru.practicum.shareit.notification.NotificationTopic;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.GetItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
@@ -21,10 +27,12 @@ import java.util.List;
 public class ItemRequestController {
 
     private final ItemRequestService itemRequestService;
+    private final NotificationHub notificationHub;
 
     @Autowired
-    public ItemRequestController(ItemRequestService itemRequestService) {
+    public ItemRequestController(ItemRequestService itemRequestService, NotificationHub notificationHub) {
         this.itemRequestService = itemRequestService;
+        this.notificationHub = notificationHub;
     }
 
     @PostMapping
@@ -35,22 +43,54 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public List<GetItemRequestDto> getUserItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemRequestService.getItemRequests(userId);
+    public ResponseEntity<List<GetItemRequestDto>> getUserItemRequests(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(value = "from", defaultValue = "0") Integer from,
+            @RequestParam(value = "size", defaultValue = "10") Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        if (cursor == null) {
+            return ResponseEntity.ok(itemRequestService.getItemRequests(userId, from, size));
+        }
+        return toCursorPage(itemRequestService.getItemRequestsAfterCursor(
+                userId, PageCursor.decode(cursor), size), size);
+    }
+
+    @GetMapping("/offers")
+    public SseEmitter subscribeToItemOffers(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        itemRequestService.checkUserExists(userId);
+        return notificationHub.subscribe(NotificationTopic.ITEM_OFFERS, userId);
     }
 
     @GetMapping("/{requestId}")
     public GetItemRequestDto getItemRequestById(
             @RequestHeader("X-Sharer-User-Id") Long userId,
-            @PathVariable Long requestId) {
+            @PathVariable Long requestId,
+            WebRequest request) {
+        if (request.checkNotModified(itemRequestService.getItemRequestVersionTag(userId, requestId))) {
+            return null;
+        }
         return itemRequestService.getItemRequestsById(userId, requestId);
     }
 
     @GetMapping("/all")
-    public List<GetItemRequestDto> getAllAnotherUsersItemRequests(
+    public ResponseEntity<List<GetItemRequestDto>> getAllAnotherUsersItemRequests(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(value = "from", defaultValue = "0") Integer from,
-            @RequestParam(value = "size", defaultValue = "10") Integer size) {
-        return itemRequestService.getAllAnotherUsersItemRequests(userId, from, size);
+            @RequestParam(value = "size", defaultValue = "10") Integer size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        if (cursor == null) {
+            return ResponseEntity.ok(itemRequestService.getAllAnotherUsersItemRequests(userId, from, size));
+        }
+        return toCursorPage(itemRequestService.getAnotherUsersItemRequestsAfterCursor(
+                userId, PageCursor.decode(cursor), size), size);
+    }
+
+    private ResponseEntity<List<GetItemRequestDto>> toCursorPage(List<GetItemRequestDto> requests, Integer size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!requests.isEmpty() && requests.size() == size) {
+            GetItemRequestDto last = requests.get(requests.size() - 1);
+            response.header(PageCursor.NEXT_CURSOR_HEADER, new PageCursor(last.getCreated(), last.getId()).encode());
+        }
+        return response.body(requests);
     }
 }
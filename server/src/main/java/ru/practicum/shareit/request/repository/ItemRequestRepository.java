@@ -1,11 +1,52 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
-    Page<ItemRequest> findAllByRequestorIdNot(Long userId, Pageable pageable);
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_REGION, value = "request-queries")
+    })
+    Slice<ItemRequest> findAllByRequestorIdNot(Long userId, Pageable pageable);
+
+    List<ItemRequest> findAllByRequestorIdOrderByCreatedDescIdDesc(Long userId, Pageable pageable);
+
+    /**
+     * Keyset page of the user's own requests, served by the (id_user, creation_date DESC, id_request DESC) index.
+     */
+    @Query("select r " +
+           "from ItemRequest as r " +
+           "where r.requestor.id = :userId " +
+           "and (r.created < :created or (r.created = :created and r.id < :id)) " +
+           "order by r.created desc, r.id desc")
+    List<ItemRequest> findUserRequestsAfter(@Param("userId") Long userId,
+                                            @Param("created") LocalDateTime created,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+
+    List<ItemRequest> findAllByRequestorIdNotOrderByCreatedDescIdDesc(Long userId, Pageable pageable);
+
+    /**
+     * Keyset page of the newest-first feed, served by the (creation_date DESC, id_request DESC) index.
+     */
+    @Query("select r " +
+           "from ItemRequest as r " +
+           "where r.requestor.id <> :userId " +
+           "and (r.created < :created or (r.created = :created and r.id < :id)) " +
+           "order by r.created desc, r.id desc")
+    List<ItemRequest> findAnotherUsersRequestsAfter(@Param("userId") Long userId,
+                                                    @Param("created") LocalDateTime created,
+                                                    @Param("id") Long id,
+                                                    Pageable pageable);
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.GetItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -10,9 +11,17 @@ public interface ItemRequestService {
 
     ItemRequest addItemRequest(Long userId, ItemRequestDto requestDto);
 
-    List<GetItemRequestDto> getItemRequests(Long userId);
+    List<GetItemRequestDto> getItemRequests(Long userId, Integer from, Integer size);
+
+    List<GetItemRequestDto> getItemRequestsAfterCursor(Long userId, PageCursor cursor, Integer size);
 
     GetItemRequestDto getItemRequestsById(Long userId, Long requestId);
 
+    String getItemRequestVersionTag(Long userId, Long requestId);
+
+    void checkUserExists(Long userId);
+
     List<GetItemRequestDto> getAllAnotherUsersItemRequests(Long userId, Integer from, Integer size);
+
+    List<GetItemRequestDto> getAnotherUsersItemRequestsAfterCursor(Long userId, PageCursor cursor, Integer size);
 }
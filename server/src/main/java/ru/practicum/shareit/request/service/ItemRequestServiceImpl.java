@@ -1,11 +1,16 @@
 package ru.practicum.shareit.request.service;
 
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.RequestItemsVersionView;
+import ru.practicum.shareit.outbox.model.AggregateType;
+import ru.practicum.shareit.outbox.service.OutboxService;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.GetItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
@@ -13,8 +18,10 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -26,13 +33,19 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository requestRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final UserExistenceCache userExistenceCache;
+    private final OutboxService outboxService;
 
     public ItemRequestServiceImpl(ItemRequestRepository requestRepository,
                                   UserRepository userRepository,
-                                  ItemRepository itemRepository) {
+                                  ItemRepository itemRepository,
+                                  UserExistenceCache userExistenceCache,
+                                  OutboxService outboxService) {
         this.requestRepository = requestRepository;
         this.userRepository = userRepository;
         this.itemRepository = itemRepository;
+        this.userExistenceCache = userExistenceCache;
+        this.outboxService = outboxService;
     }
 
     @Override
@@ -41,40 +54,91 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         User requester = userRepository.findById(userId).orElseThrow(() ->
                 new NotFoundException(String.format("User id=%d not found", userId)));
         ItemRequest request = ItemRequestMapper.toItemRequest(requestDto, requester);
-        request.setCreated(LocalDateTime.now());
-        return requestRepository.save(request);
+        // Stored precision, so the time in a feed cursor matches the database value
+        request.setCreated(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+        requester.addRequest(request);
+        ItemRequest addedRequest = requestRepository.save(request);
+        outboxService.addEvent(AggregateType.REQUEST, addedRequest.getId(), "request-created",
+                ItemRequestMapper.toItemRequestDto(addedRequest));
+        return addedRequest;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<GetItemRequestDto> getItemRequests(Long userId) {
-        User user = userRepository.findById(userId).orElseThrow(() ->
-                        new NotFoundException(String.format("User id=%d not found", userId)));
-        List<ItemRequest> itemRequests = user.getRequests();
+    public List<GetItemRequestDto> getItemRequests(Long userId, Integer from, Integer size) {
+        if (!userExistenceCache.exists(userId))
+            throw new NotFoundException(String.format("User id=%d not found", userId));
+        List<ItemRequest> itemRequests = requestRepository.findAllByRequestorIdOrderByCreatedDescIdDesc(
+                userId, PageRequest.of(from / size, size));
+        return getGetItemRequestDtos(itemRequests);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<GetItemRequestDto> getItemRequestsAfterCursor(Long userId, PageCursor cursor, Integer size) {
+        if (!userExistenceCache.exists(userId))
+            throw new NotFoundException(String.format("User id=%d not found", userId));
+        List<ItemRequest> itemRequests = cursor == null
+                ? requestRepository.findAllByRequestorIdOrderByCreatedDescIdDesc(userId, PageRequest.of(0, size))
+                : requestRepository.findUserRequestsAfter(userId, cursor.getTime(), cursor.getId(),
+                        PageRequest.of(0, size));
         return getGetItemRequestDtos(itemRequests);
     }
 
     @Override
     @Transactional(readOnly = true)
     public GetItemRequestDto getItemRequestsById(Long userId, Long requestId) {
-        userRepository.findById(userId).orElseThrow(() ->
-                new NotFoundException(String.format("User id=%d not found", userId)));
+        if (!userExistenceCache.exists(userId))
+            throw new NotFoundException(String.format("User id=%d not found", userId));
         ItemRequest request = requestRepository.findById(requestId).orElseThrow(() ->
                 new NotFoundException(String.format("Request id=%d not found", requestId)));
         List<Item> items = itemRepository.findAllByRequestIdIn(Set.of(request.getId()));
         return ItemRequestMapper.toGetItemRequestDto(request, items);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public String getItemRequestVersionTag(Long userId, Long requestId) {
+        if (!userExistenceCache.exists(userId))
+            throw new NotFoundException(String.format("User id=%d not found", userId));
+        ItemRequest request = requestRepository.findById(requestId).orElseThrow(() ->
+                new NotFoundException(String.format("Request id=%d not found", requestId)));
+        RequestItemsVersionView itemsVersion = itemRepository.getRequestItemsVersion(requestId);
+        return String.format("%d-%d-%d-%d", request.getId(), itemsVersion.getItemsCount(),
+                itemsVersion.getLastItemId() != null ? itemsVersion.getLastItemId() : 0,
+                itemsVersion.getVersionSum() != null ? itemsVersion.getVersionSum() : 0);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<GetItemRequestDto> getAllAnotherUsersItemRequests(Long userId, Integer from, Integer size) {
-        userRepository.findById(userId).orElseThrow(() ->
-                new NotFoundException(String.format("User id=%d not found", userId)));
+        if (!userExistenceCache.exists(userId))
+            throw new NotFoundException(String.format("User id=%d not found", userId));
         List<ItemRequest> itemRequests =
-                requestRepository.findAllByRequestorIdNot(userId, PageRequest.of(from / size, size)).getContent();
+                requestRepository.findAllByRequestorIdNot(userId, PageRequest.of(from / size, size,
+                        Sort.by(Sort.Direction.DESC, "created", "id"))).getContent();
+        return getGetItemRequestDtos(itemRequests);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<GetItemRequestDto> getAnotherUsersItemRequestsAfterCursor(Long userId, PageCursor cursor,
+                                                                          Integer size) {
+        if (!userExistenceCache.exists(userId))
+            throw new NotFoundException(String.format("User id=%d not found", userId));
+        List<ItemRequest> itemRequests = cursor == null
+                ? requestRepository.findAllByRequestorIdNotOrderByCreatedDescIdDesc(userId, PageRequest.of(0, size))
+                : requestRepository.findAnotherUsersRequestsAfter(userId, cursor.getTime(), cursor.getId(),
+                        PageRequest.of(0, size));
         return getGetItemRequestDtos(itemRequests);
     }
 
+    @Override
+    public void checkUserExists(Long userId) {
+        if (!userExistenceCache.exists(userId))
+            throw new NotFoundException(String.format("User id=%d not found", userId));
+    }
+
     private List<GetItemRequestDto> getGetItemRequestDtos(List<ItemRequest> itemRequests) {
         Set<Long> itemRequestsIds = itemRequests.stream()
                 .map(ItemRequest::getId)
@@ -2,6 +2,7 @@ package ru.practicum.shareit.user.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
@@ -25,7 +26,10 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public UserDto getUserById(@PathVariable Long userId) {
+    public UserDto getUserById(@PathVariable Long userId, WebRequest request) {
+        if (request.checkNotModified(userService.getUserVersionTag(userId))) {
+            return null;
+        }
         return UserMapper.toUserDto(userService.getUserById(userId));
     }
 
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 
@@ -18,6 +20,8 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Table(name = "users", schema = "public")
 public class User {
 
@@ -32,10 +36,16 @@ public class User {
     @Column
     private String name;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "owner")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-items")
     private List<Item> items;
 
     @OneToMany(mappedBy = "requestor")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-requests")
     private List<ItemRequest> requests;
 
     public void addItem(Item item) {
@@ -13,16 +13,20 @@ import java.util.List;
 public class NewUserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
 
     @Autowired
-    public NewUserServiceImpl(UserRepository userRepository) {
+    public NewUserServiceImpl(UserRepository userRepository, UserExistenceCache userExistenceCache) {
         this.userRepository = userRepository;
+        this.userExistenceCache = userExistenceCache;
     }
 
     @Override
     @Transactional
     public User addUser(User user) {
-        return userRepository.save(user);
+        User addedUser = userRepository.save(user);
+        userExistenceCache.onUserAdded(addedUser.getId());
+        return addedUser;
     }
 
     @Override
@@ -32,6 +36,13 @@ public class NewUserServiceImpl implements UserService {
                 String.format("User id=%d not found", userId)));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public String getUserVersionTag(Long userId) {
+        User user = getUserById(userId);
+        return user.getId() + "-" + user.getVersion();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<User> getAllUsers() {
@@ -52,6 +63,7 @@ public class NewUserServiceImpl implements UserService {
     public User deleteUser(Long userId) {
         User user = getUserById(userId);
         userRepository.deleteById(userId);
+        userExistenceCache.onUserDeleted(userId);
         return user;
     }
 }
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.Duration;
+
+/**
+ * Remembers ids of existing users, so validating the X-Sharer-User-Id header does not hit the database.
+ * Only positive answers are cached. Deleting a user drops its id both at once and after the transaction completes.
+ */
+@Component
+public class UserExistenceCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Boolean> cache;
+
+    @Autowired
+    public UserExistenceCache(UserRepository userRepository, MeterRegistry meterRegistry,
+                              @Value("${shareit.user-existence-cache.maximum-size:100000}") long maximumSize,
+                              @Value("${shareit.user-existence-cache.expire-after-write:10m}")
+                              Duration expireAfterWrite) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userExistence");
+    }
+
+    public boolean exists(Long userId) {
+        if (cache.getIfPresent(userId) != null) {
+            return true;
+        }
+        boolean exists = userRepository.existsById(userId);
+        if (exists) {
+            cache.put(userId, Boolean.TRUE);
+        }
+        return exists;
+    }
+
+    public void onUserAdded(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.put(userId, Boolean.TRUE);
+                }
+            });
+        } else {
+            cache.put(userId, Boolean.TRUE);
+        }
+    }
+
+    public void onUserDeleted(Long userId) {
+        cache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+    }
+}
@@ -10,6 +10,8 @@ public interface UserService {
 
     User getUserById(Long userId);
 
+    String getUserVersionTag(Long userId);
+
     List<User> getAllUsers();
 
     User updateUser(User user, Long userId);
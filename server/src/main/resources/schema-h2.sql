@@ -0,0 +1,9 @@
+ALTER TABLE bookings ADD CONSTRAINT bookings_approved_no_overlap
+    CHECK (status <> 'APPROVED' OR NOT EXISTS (
+        SELECT 1
+        FROM bookings AS b
+        WHERE b.id_item = bookings.id_item
+        AND b.id_booking <> bookings.id_booking
+        AND b.status = 'APPROVED'
+        AND b.start_booking <= bookings.end_booking
+        AND b.end_booking >= bookings.start_booking));
@@ -0,0 +1,13 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE bookings ADD CONSTRAINT bookings_approved_no_overlap
+    EXCLUDE USING gist (id_item WITH =, tsrange(start_booking, end_booking, '[]') WITH &&)
+    WHERE (status = 'APPROVED');
+
+ALTER TABLE items ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (setweight(to_tsvector('simple', name), 'A') ||
+                         setweight(to_tsvector('simple', description), 'B')) STORED;
+
+CREATE INDEX IF NOT EXISTS items_name_trgm_idx ON items USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS items_description_trgm_idx ON items USING gin (lower(description) gin_trgm_ops);
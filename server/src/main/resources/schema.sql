@@ -3,11 +3,14 @@ DROP TABLE IF EXISTS requests CASCADE;
 DROP TABLE IF EXISTS items CASCADE;
 DROP TABLE IF EXISTS bookings CASCADE;
 DROP TABLE IF EXISTS comments CASCADE;
+DROP TABLE IF EXISTS item_booking_summaries CASCADE;
+DROP TABLE IF EXISTS outbox_events CASCADE;
 
 CREATE TABLE IF NOT EXISTS users (
     id_user SERIAL PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
-    email VARCHAR(512) NOT NULL UNIQUE
+    email VARCHAR(512) NOT NULL UNIQUE,
+    version BIGINT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS requests (
@@ -17,15 +20,21 @@ CREATE TABLE IF NOT EXISTS requests (
     id_user INTEGER REFERENCES users (id_user)
 );
 
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests (creation_date DESC, id_request DESC);
+CREATE INDEX IF NOT EXISTS requests_requestor_created_idx ON requests (id_user, creation_date DESC, id_request DESC);
+
 CREATE TABLE IF NOT EXISTS items (
     id_item SERIAL PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     description VARCHAR NOT NULL,
     available BOOLEAN NOT NULL,
     id_user INTEGER REFERENCES users (id_user),
-    id_request INTEGER REFERENCES requests (id_request)
+    id_request INTEGER REFERENCES requests (id_request),
+    version BIGINT NOT NULL DEFAULT 0
 );
 
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (id_user);
+
 CREATE TABLE IF NOT EXISTS bookings (
     id_booking SERIAL PRIMARY KEY,
     start_booking TIMESTAMP NOT NULL,
@@ -35,6 +44,16 @@ CREATE TABLE IF NOT EXISTS bookings (
     status VARCHAR(10)
 );
 
+CREATE INDEX IF NOT EXISTS bookings_item_status_end_idx ON bookings (id_item, status, end_booking);
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (id_user, start_booking DESC, id_booking);
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (id_item, start_booking DESC, id_booking);
+
+CREATE TABLE IF NOT EXISTS item_booking_summaries (
+    id_item INTEGER PRIMARY KEY REFERENCES items (id_item) ON DELETE CASCADE,
+    id_last_booking INTEGER REFERENCES bookings (id_booking),
+    id_next_booking INTEGER REFERENCES bookings (id_booking)
+);
+
 CREATE TABLE IF NOT EXISTS comments (
     id_comment SERIAL PRIMARY KEY,
     text VARCHAR NOT NULL,
@@ -42,3 +61,14 @@ CREATE TABLE IF NOT EXISTS comments (
     id_author INTEGER REFERENCES users (id_user),
     creation_date TIMESTAMP NOT NULL
 );
+
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments (id_item, id_comment);
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id_event BIGSERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(20) NOT NULL,
+    id_aggregate BIGINT NOT NULL,
+    event_type VARCHAR(40) NOT NULL,
+    payload VARCHAR NOT NULL,
+    creation_date TIMESTAMP NOT NULL
+);
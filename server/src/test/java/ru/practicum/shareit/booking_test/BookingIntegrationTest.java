@@ -12,6 +12,7 @@ import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.EntityManager;
@@ -100,6 +101,40 @@ public class BookingIntegrationTest {
                 bookingService.addBooking(BookingMapper.toShortBookingDto(newBookingWithTimeIntersection), bookerId));
     }
 
+    @Test
+    public void addBookingTimeIntersectionTest() {
+        // Create itemOwner and booker. Add them to DB
+        User itemOwner = createUser(1);
+        User booker = createUser(2);
+        addUserToDb(itemOwner);
+        Long bookerId = addUserToDb(booker);
+        // Create item. Add item to DB
+        Item item = createItem(1, itemOwner);
+        addItemToDb(item);
+        // Create approved past and future bookings. Add them to DB
+        Booking pastBooking = createBooking("2000-01-01 | 10:00:00", "2000-01-01 | 12:00:00", item, booker);
+        Booking futureBooking = createBooking("2030-01-01 | 10:00:00", "2030-01-01 | 12:00:00", item, booker);
+        pastBooking.setStatus(BookingStatus.APPROVED);
+        futureBooking.setStatus(BookingStatus.APPROVED);
+        em.persist(pastBooking);
+        em.persist(futureBooking);
+
+        // Add booking which intersects futureBooking
+        Booking intersectingBooking = createBooking("2030-01-01 | 11:00:00", "2030-01-01 | 13:00:00", item, booker);
+        assertThrows(NotAvailableException.class, () ->
+                bookingService.addBooking(BookingMapper.toShortBookingDto(intersectingBooking), bookerId));
+
+        // Add booking which ends exactly at the start of futureBooking
+        Booking touchingBooking = createBooking("2030-01-01 | 08:00:00", "2030-01-01 | 10:00:00", item, booker);
+        assertThrows(NotAvailableException.class, () ->
+                bookingService.addBooking(BookingMapper.toShortBookingDto(touchingBooking), bookerId));
+
+        // Add booking between pastBooking and futureBooking
+        Booking freeTimeBooking = createBooking("2030-01-01 | 13:00:00", "2030-01-01 | 14:00:00", item, booker);
+        Booking addedBooking = bookingService.addBooking(BookingMapper.toShortBookingDto(freeTimeBooking), bookerId);
+        assertThat(getBookingFromDb(addedBooking.getId()).getStatus(), is(BookingStatus.WAITING));
+    }
+
     @Test
     public void updateBookingStatusTest() {
         // Create itemOwner and booker. Add them to DB
@@ -133,6 +168,31 @@ public class BookingIntegrationTest {
                 () -> bookingService.updateBookingStatus(addedBooking.getId(), itemOwnerId, "false"));
     }
 
+    @Test
+    public void updateBookingStatusTimeIntersectionTest() {
+        // Create itemOwner and booker. Add them to DB
+        User itemOwner = createUser(1);
+        User booker = createUser(2);
+        Long itemOwnerId = addUserToDb(itemOwner);
+        Long bookerId = addUserToDb(booker);
+        // Create item. Add item to DB
+        Item item = createItem(1, itemOwner);
+        addItemToDb(item);
+        // Create two intersecting bookings. Add them to DB while both are waiting
+        Booking booking1 = createBooking("2030-01-01 | 10:00:00", "2030-01-01 | 12:00:00", item, booker);
+        Booking booking2 = createBooking("2030-01-01 | 11:00:00", "2030-01-01 | 13:00:00", item, booker);
+        Booking addedBooking1 = bookingService.addBooking(BookingMapper.toShortBookingDto(booking1), bookerId);
+        Booking addedBooking2 = bookingService.addBooking(BookingMapper.toShortBookingDto(booking2), bookerId);
+
+        // Approve first booking
+        bookingService.updateBookingStatus(addedBooking1.getId(), itemOwnerId, "true");
+        assertThat(getBookingFromDb(addedBooking1.getId()).getStatus(), is(BookingStatus.APPROVED));
+
+        // Try to approve second booking. Must be rejected by the database constraint
+        assertThrows(NotAvailableException.class,
+                () -> bookingService.updateBookingStatus(addedBooking2.getId(), itemOwnerId, "true"));
+    }
+
     @Test
     public void getBookingByIdTest() {
         // Create itemOwner and booker. Add them to DB
@@ -182,6 +242,14 @@ public class BookingIntegrationTest {
         // Get bookings with state==ALL
         List<Booking> allBookings = bookingService.getAllBookingsByUserFilteredByState("ALL", bookerId, 0, 10);
         assertThat(allBookings.size(), equalTo(3));
+        assertThat(allBookings.get(0).getId(), equalTo(addedFutureBooking.getId()));
+        assertThat(allBookings.get(1).getId(), equalTo(addedCurrentBooking.getId()));
+        assertThat(allBookings.get(2).getId(), equalTo(addedPastBooking.getId()));
+
+        // Get second page of bookings with state==ALL
+        List<Booking> secondPage = bookingService.getAllBookingsByUserFilteredByState("ALL", bookerId, 2, 2);
+        assertThat(secondPage.size(), equalTo(1));
+        assertThat(secondPage.get(0).getId(), equalTo(addedPastBooking.getId()));
 
         // Get bookings with state==PAST
         List<Booking> pastBookings = bookingService.getAllBookingsByUserFilteredByState("PAST", bookerId, 0, 10);
@@ -207,6 +275,39 @@ public class BookingIntegrationTest {
         assertThat(rejectedBookings.size(), equalTo(0));
     }
 
+    @Test
+    public void getAllBookingsByUserWithSharedItemsTest() {
+        // Create itemOwner and booker. Add them to DB
+        User itemOwner = createUser(1);
+        User booker = createUser(2);
+        addUserToDb(itemOwner);
+        Long bookerId = addUserToDb(booker);
+        // Create items. Add items to DB
+        Item item1 = createItem(1, itemOwner);
+        Item item2 = createItem(2, itemOwner);
+        Long item1Id = addItemToDb(item1);
+        Long item2Id = addItemToDb(item2);
+        // Create bookings, two of them for the same item. Add bookings to DB
+        Booking booking1 = createBooking("2030-01-01 | 10:00:00", "2030-01-01 | 12:00:00", item2, booker);
+        Booking booking2 = createBooking("2031-01-01 | 10:00:00", "2031-01-01 | 12:00:00", item1, booker);
+        Booking booking3 = createBooking("2032-01-01 | 10:00:00", "2032-01-01 | 12:00:00", item2, booker);
+        bookingService.addBooking(BookingMapper.toShortBookingDto(booking1), bookerId);
+        bookingService.addBooking(BookingMapper.toShortBookingDto(booking2), bookerId);
+        bookingService.addBooking(BookingMapper.toShortBookingDto(booking3), bookerId);
+        em.flush();
+        em.clear();
+
+        // Get bookings with state==ALL
+        List<Booking> bookings = bookingService.getAllBookingsByUserFilteredByState("ALL", bookerId, 0, 10);
+        // Check that every booking has its own item and booker
+        assertThat(bookings.size(), equalTo(3));
+        assertThat(bookings.get(0).getItem().getId(), equalTo(item2Id));
+        assertThat(bookings.get(1).getItem().getId(), equalTo(item1Id));
+        assertThat(bookings.get(2).getItem().getId(), equalTo(item2Id));
+        assertThat(bookings.get(0).getItem().getName(), equalTo(item2.getName()));
+        assertThat(bookings.get(1).getBooker().getName(), equalTo(booker.getName()));
+    }
+
     @Test
     public void getAllBookingsByItemsOwnerFilteredByStateTest() {
         // Create itemOwner and booker. Add them to DB
@@ -228,6 +329,9 @@ public class BookingIntegrationTest {
         // Get bookings with state==ALL
         List<Booking> allBookings = bookingService.getAllBookingsByItemsOwnerFilteredByState("ALL", itemOwnerId, 0, 10);
         assertThat(allBookings.size(), equalTo(3));
+        assertThat(allBookings.get(0).getId(), equalTo(addedFutureBooking.getId()));
+        assertThat(allBookings.get(1).getId(), equalTo(addedCurrentBooking.getId()));
+        assertThat(allBookings.get(2).getId(), equalTo(addedPastBooking.getId()));
 
         // Get bookings with state==PAST
         List<Booking> pastBookings = bookingService.getAllBookingsByItemsOwnerFilteredByState("PAST", itemOwnerId, 0, 10);
@@ -253,6 +357,46 @@ public class BookingIntegrationTest {
         assertThat(rejectedBookings.size(), equalTo(0));
     }
 
+    @Test
+    public void getAllBookingsByCursorTest() {
+        // Create itemOwner and booker. Add them to DB
+        User itemOwner = createUser(1);
+        User booker = createUser(2);
+        Long itemOwnerId = addUserToDb(itemOwner);
+        Long bookerId = addUserToDb(booker);
+        // Create item. Add item to DB
+        Item item = createItem(1, itemOwner);
+        addItemToDb(item);
+        // Create bookings. Add booking to DB
+        Booking pastBooking = createBooking("2000-01-01 | 10:00:00", "2000-01-01 | 12:00:00", item, booker);
+        Booking currentBooking = createBooking("2020-01-01 | 10:00:00", "2030-01-01 | 12:00:00", item, booker);
+        Booking futureBooking = createBooking("2040-01-01 | 10:00:00", "2040-01-01 | 12:00:00", item, booker);
+        Booking addedPastBooking = bookingService.addBooking(BookingMapper.toShortBookingDto(pastBooking), bookerId);
+        Booking addedCurrentBooking = bookingService.addBooking(BookingMapper.toShortBookingDto(currentBooking), bookerId);
+        Booking addedFutureBooking = bookingService.addBooking(BookingMapper.toShortBookingDto(futureBooking), bookerId);
+
+        // Get first page of booker bookings
+        List<Booking> firstPage = bookingService.getBookingsByUserAfterCursor("ALL", bookerId, null, 2);
+        assertThat(firstPage.size(), equalTo(2));
+        assertThat(firstPage.get(0).getId(), equalTo(addedFutureBooking.getId()));
+        assertThat(firstPage.get(1).getId(), equalTo(addedCurrentBooking.getId()));
+
+        // Get second page of booker bookings after the last booking of the first page
+        PageCursor cursor = PageCursor.decode(
+                new PageCursor(firstPage.get(1).getStart(), firstPage.get(1).getId()).encode());
+        List<Booking> secondPage = bookingService.getBookingsByUserAfterCursor("ALL", bookerId, cursor, 2);
+        assertThat(secondPage.size(), equalTo(1));
+        assertThat(secondPage.get(0).getId(), equalTo(addedPastBooking.getId()));
+
+        // Get second page of owner bookings with state==FUTURE
+        List<Booking> ownerPage = bookingService.getBookingsByItemsOwnerAfterCursor("FUTURE", itemOwnerId,
+                new PageCursor(addedFutureBooking.getStart(), addedFutureBooking.getId()), 2);
+        assertThat(ownerPage.size(), equalTo(0));
+
+        // Try to decode incorrect cursor
+        assertThrows(NotAvailableException.class, () -> PageCursor.decode("incorrect"));
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
 
     private User createUser(int i) {
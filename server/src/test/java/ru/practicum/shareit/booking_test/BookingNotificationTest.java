@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking_test;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.notification_test.EventStream;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingNotificationTest {
+
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    public void bookingNotificationTest() throws Exception {
+        // Add item owner, booker and item. Every call commits
+        User itemOwner = userService.addUser(createUser("owner@mail.com"));
+        User booker = userService.addUser(createUser("booker@mail.com"));
+        Item item = itemService.addItem(Item.builder().name("Drill").description("Drill").available(true).build(),
+                itemOwner.getId(), null);
+        try (EventStream ownerStream = EventStream.subscribe(port, "/bookings/notifications", itemOwner.getId());
+             EventStream bookerStream = EventStream.subscribe(port, "/bookings/notifications", booker.getId())) {
+            // Owner gets new bookings of his items
+            CompletableFuture<List<String>> ownerEvent = ownerStream.nextEvent();
+            Booking booking = bookingService.addBooking(ShortBookingDto.builder()
+                    .itemId(item.getId())
+                    .start(LocalDateTime.now().plusDays(1))
+                    .end(LocalDateTime.now().plusDays(2))
+                    .build(), booker.getId());
+            List<String> lines = ownerEvent.get(10, TimeUnit.SECONDS);
+            assertThat(lines, hasItem("event:booking-created"));
+            assertThat(lines.get(lines.size() - 1), containsString("\"id\":" + booking.getId()));
+            assertThat(lines.get(lines.size() - 1), containsString("\"status\":\"WAITING\""));
+
+            // Booker gets status changes of his bookings
+            CompletableFuture<List<String>> bookerEvent = bookerStream.nextEvent();
+            bookingService.updateBookingStatus(booking.getId(), itemOwner.getId(), "true");
+            lines = bookerEvent.get(10, TimeUnit.SECONDS);
+            assertThat(lines, hasItem("event:booking-status"));
+            assertThat(lines.get(lines.size() - 1), containsString("\"status\":\"APPROVED\""));
+        } finally {
+            jdbcTemplate.update("DELETE FROM item_booking_summaries WHERE id_item = ?", item.getId());
+            jdbcTemplate.update("DELETE FROM bookings WHERE id_item = ?", item.getId());
+            itemService.deleteItem(item.getId(), itemOwner.getId());
+            userService.deleteUser(booker.getId());
+            userService.deleteUser(itemOwner.getId());
+        }
+    }
+
+    private User createUser(String email) {
+        return User.builder()
+                .name("User")
+                .email(email)
+                .build();
+    }
+}
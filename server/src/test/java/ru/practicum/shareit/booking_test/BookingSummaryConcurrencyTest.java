@@ -0,0 +1,102 @@
+package ru.practicum.shareit.booking_test;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingSummaryConcurrencyTest {
+
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final PlatformTransactionManager transactionManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void concurrentApprovalsTest() throws Exception {
+        // Add item owner, booker, item without a summary and two waiting bookings. Every call commits
+        User itemOwner = userService.addUser(createUser("summary-owner@mail.com"));
+        User booker = userService.addUser(createUser("summary-booker@mail.com"));
+        Item item = itemService.addItem(Item.builder().name("Drill").description("Drill").available(true).build(),
+                itemOwner.getId(), null);
+        Booking laterBooking = addBooking(item, booker, 3);
+        Booking earlierBooking = addBooking(item, booker, 1);
+        try {
+            // Approve the later booking in a transaction that stays open
+            CountDownLatch laterApproved = new CountDownLatch(1);
+            CountDownLatch commitLater = new CountDownLatch(1);
+            CompletableFuture<Void> laterTransaction = CompletableFuture.runAsync(() ->
+                    new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                        bookingService.updateBookingStatus(laterBooking.getId(), itemOwner.getId(), "true");
+                        laterApproved.countDown();
+                        try {
+                            commitLater.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }));
+            assertThat(laterApproved.await(5, TimeUnit.SECONDS), is(true));
+
+            // Approve the earlier booking meanwhile. Its summary refresh has to wait for the first approval
+            CompletableFuture<Booking> earlierTransaction = CompletableFuture.supplyAsync(() ->
+                    bookingService.updateBookingStatus(earlierBooking.getId(), itemOwner.getId(), "true"));
+            Thread.sleep(300);
+            assertThat(earlierTransaction.isDone(), is(false));
+            commitLater.countDown();
+            laterTransaction.get(5, TimeUnit.SECONDS);
+            earlierTransaction.get(5, TimeUnit.SECONDS);
+
+            // Check the summary sees both approvals
+            Long nextBookingId = jdbcTemplate.queryForObject("SELECT id_next_booking FROM item_booking_summaries " +
+                    "WHERE id_item = ?", Long.class, item.getId());
+            assertThat(nextBookingId, equalTo(earlierBooking.getId()));
+        } finally {
+            jdbcTemplate.update("DELETE FROM item_booking_summaries WHERE id_item = ?", item.getId());
+            jdbcTemplate.update("DELETE FROM bookings WHERE id_item = ?", item.getId());
+            itemService.deleteItem(item.getId(), itemOwner.getId());
+            jdbcTemplate.update("DELETE FROM outbox_events WHERE aggregate_type = 'ITEM' AND id_aggregate = ?",
+                    item.getId());
+            jdbcTemplate.update("DELETE FROM outbox_events WHERE aggregate_type = 'BOOKING' AND id_aggregate IN (?, ?)",
+                    laterBooking.getId(), earlierBooking.getId());
+            userService.deleteUser(booker.getId());
+            userService.deleteUser(itemOwner.getId());
+        }
+    }
+
+    private Booking addBooking(Item item, User booker, int startInDays) {
+        return bookingService.addBooking(ShortBookingDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusDays(startInDays))
+                .end(LocalDateTime.now().plusDays(startInDays + 1))
+                .build(), booker.getId());
+    }
+
+    private User createUser(String email) {
+        return User.builder()
+                .name("User")
+                .email(email)
+                .build();
+    }
+}
@@ -7,12 +7,17 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.NotAvailableException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.GetItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.service.ItemBookingSummaryService;
+import ru.practicum.shareit.item.service.ItemNameSuggester;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
@@ -37,6 +42,10 @@ import static org.junit.jupiter.api.Assertions.*;
 public class ItemIntegrationTest {
 
     private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemBookingSummaryService summaryService;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final ItemNameSuggester nameSuggester;
     private final EntityManager em;
 
     @Test
@@ -199,6 +208,84 @@ public class ItemIntegrationTest {
         assertThrows(NotFoundException.class, () -> itemService.getUserItems(incorrectOwnerId, 0, 10));
     }
 
+    @Test
+    public void getUserItemsWithBookingsTest() {
+        // Create itemOwner and booker
+        User itemOwner = createUser(1);
+        User booker = createUser(2);
+        // Add itemOwner and booker to DB
+        Long itemOwnerId = addUserToDb(itemOwner);
+        addUserToDb(booker);
+        // Create items and add them to DB
+        Item item1 = createItem(1, true, itemOwner, null);
+        Item item2 = createItem(2, true, itemOwner, null);
+        Item item3 = createItem(3, true, itemOwner, null);
+        addItemToDb(item1);
+        addItemToDb(item2);
+        addItemToDb(item3);
+        // Add bookings of the first item: two past, two future and not approved ones
+        addBookingToDb(createBooking(booker, item1, "2001-01-01 10:00:00"));
+        Long lastBookingId = addBookingToDb(createBooking(booker, item1, "2005-01-01 10:00:00"));
+        Long nextBookingId = addBookingToDb(createBooking(booker, item1, "2040-01-01 10:00:00"));
+        addBookingToDb(createBooking(booker, item1, "2045-01-01 10:00:00"));
+        Booking rejected = createBooking(booker, item1, "2010-01-01 10:00:00");
+        rejected.setStatus(BookingStatus.REJECTED);
+        addBookingToDb(rejected);
+        Booking waiting = createBooking(booker, item1, "2030-01-01 10:00:00");
+        waiting.setStatus(BookingStatus.WAITING);
+        addBookingToDb(waiting);
+        // Add only a past booking of the second item
+        Long secondItemLastBookingId = addBookingToDb(createBooking(booker, item2, "2003-01-01 10:00:00"));
+
+        // Get user items from DB
+        List<GetItemDto> itemsFromDb = itemService.getUserItems(itemOwnerId, 0, 10);
+        // Check results
+        assertThat(itemsFromDb.size(), equalTo(3));
+        assertThat(itemsFromDb.get(0).getLastBooking().getId(), equalTo(lastBookingId));
+        assertThat(itemsFromDb.get(0).getNextBooking().getId(), equalTo(nextBookingId));
+        assertThat(itemsFromDb.get(1).getLastBooking().getId(), equalTo(secondItemLastBookingId));
+        assertThat(itemsFromDb.get(1).getNextBooking(), equalTo(null));
+        assertThat(itemsFromDb.get(2).getLastBooking(), equalTo(null));
+        assertThat(itemsFromDb.get(2).getNextBooking(), equalTo(null));
+    }
+
+    @Test
+    public void itemBookingSummaryTest() {
+        // Create itemOwner and booker
+        User itemOwner = createUser(1);
+        User booker = createUser(2);
+        // Add itemOwner, booker and item to DB
+        Long itemOwnerId = addUserToDb(itemOwner);
+        addUserToDb(booker);
+        Item item = createItem(1, true, itemOwner, null);
+        Long itemId = addItemToDb(item);
+        // Add past approved booking and future waiting booking
+        Long lastBookingId = addBookingToDb(createBooking(booker, item, "2005-01-01 10:00:00"));
+        Booking booking = createBooking(booker, item, "2040-01-01 10:00:00");
+        booking.setStatus(BookingStatus.WAITING);
+        Long nextBookingId = addBookingToDb(booking);
+
+        // Approve future booking. Summary must be created
+        bookingService.updateBookingStatus(nextBookingId, itemOwnerId, "true");
+        ItemBookingSummary summary = summaryRepository.findById(itemId).orElseThrow();
+        assertThat(summary.getLastBooking().getId(), equalTo(lastBookingId));
+        assertThat(summary.getNextBooking().getId(), equalTo(nextBookingId));
+        GetItemDto itemFromDb = itemService.getItemById(itemId, itemOwnerId);
+        assertThat(itemFromDb.getLastBooking().getId(), equalTo(lastBookingId));
+        assertThat(itemFromDb.getNextBooking().getId(), equalTo(nextBookingId));
+
+        // Next booking starts. Item must not show it as next before and after roll-over
+        booking.setStart(LocalDateTime.now().minusHours(1));
+        em.flush();
+        itemFromDb = itemService.getItemById(itemId, itemOwnerId);
+        assertThat(itemFromDb.getLastBooking().getId(), equalTo(nextBookingId));
+        assertThat(itemFromDb.getNextBooking(), equalTo(null));
+        summaryService.rollStartedBookings();
+        summary = summaryRepository.findById(itemId).orElseThrow();
+        assertThat(summary.getLastBooking().getId(), equalTo(nextBookingId));
+        assertThat(summary.getNextBooking(), equalTo(null));
+    }
+
     @Test
     public void searchItemsTest() {
         // Create itemOwner
@@ -244,6 +331,68 @@ public class ItemIntegrationTest {
         assertThat(items4.get(0).getId(), equalTo(createdItemId1));
     }
 
+    @Test
+    public void searchItemsCacheTest() {
+        // Create itemOwner and add to DB
+        User itemOwner = createUser(1);
+        Long itemOwnerId = addUserToDb(itemOwner);
+        // Add item to DB
+        Item createdItem1 = createItem(1, true, itemOwner, null);
+        createdItem1.setName("Cached drill");
+        Long createdItemId1 = addItemToDb(createdItem1);
+
+        // Search items. Result must be cached
+        List<Item> items1 = itemService.searchItems(itemOwnerId, "cached DRILL", 0, 10);
+        // Add item to DB bypassing service
+        Item createdItem2 = createItem(2, true, itemOwner, null);
+        createdItem2.setName("Cached drill 2");
+        Long createdItemId2 = addItemToDb(createdItem2);
+        // Search items again. Result must be from cache
+        List<Item> items2 = itemService.searchItems(itemOwnerId, "cached drill", 0, 10);
+        // Check results
+        assertThat(items1.size(), equalTo(1));
+        assertThat(items2.size(), equalTo(1));
+        assertThat(items2.get(0).getId(), equalTo(createdItemId1));
+
+        // Rename first item. Cached result must be invalidated
+        Item updatedItem = Item.builder().name("Hammer").build();
+        itemService.updateItem(updatedItem, createdItemId1, itemOwnerId);
+        List<Item> items3 = itemService.searchItems(itemOwnerId, "cached drill", 0, 10);
+        // Check results
+        assertThat(items3.size(), equalTo(1));
+        assertThat(items3.get(0).getId(), equalTo(createdItemId2));
+    }
+
+    @Test
+    public void suggestItemNamesTest() {
+        // Create itemOwner and add to DB
+        User itemOwner = createUser(1);
+        Long itemOwnerId = addUserToDb(itemOwner);
+        // Add items to DB
+        String[] names = {"Suggest drill", "suggest Drill", "Suggest bike", "Suggest axe", "Suggest hidden"};
+        for (int i = 0; i < names.length; i++) {
+            Item item = createItem(i, i != 4, itemOwner, null);
+            item.setName(names[i]);
+            addItemToDb(item);
+        }
+        // Load names
+        nameSuggester.rebuild();
+
+        // Get suggestions
+        List<String> suggestions1 = itemService.suggestItemNames(itemOwnerId, "SUGGEST", 10);
+        List<String> suggestions2 = itemService.suggestItemNames(itemOwnerId, "suggest d", 10);
+        List<String> suggestions3 = itemService.suggestItemNames(itemOwnerId, "suggest", 2);
+        List<String> suggestions4 = itemService.suggestItemNames(itemOwnerId, "", 10);
+        // Check results
+        // Names differing only in case are suggested once
+        assertThat(suggestions1, equalTo(List.of("Suggest axe", "Suggest bike", "Suggest drill")));
+        assertThat(suggestions2, equalTo(List.of("Suggest drill")));
+        assertThat(suggestions3, equalTo(List.of("Suggest axe", "Suggest bike")));
+        assertTrue(suggestions4.isEmpty());
+        // Unknown user gets no suggestions
+        assertThrows(NotFoundException.class, () -> itemService.suggestItemNames(itemOwnerId + 1, "suggest", 10));
+    }
+
     @Test
     public void deleteItemTest() {
         // Create itemOwner
@@ -275,6 +424,47 @@ public class ItemIntegrationTest {
         assertThrows(NotFoundException.class, () -> itemService.deleteItem(-100L, itemOwnerId));
     }
 
+    @Test
+    public void itemVersionTagTest() {
+        // Create itemOwner and booker
+        User itemOwner = createUser(1);
+        User booker = createUser(2);
+        // Add itemOwner, booker and item to DB
+        Long itemOwnerId = addUserToDb(itemOwner);
+        Long bookerId = addUserToDb(booker);
+        Long itemId = addItemToDb(createItem(1, true, itemOwner, null));
+
+        // Tag does not change while the item stays the same
+        String ownerTag = itemService.getItemVersionTag(itemId, itemOwnerId);
+        String bookerTag = itemService.getItemVersionTag(itemId, bookerId);
+        assertThat(itemService.getItemVersionTag(itemId, itemOwnerId), equalTo(ownerTag));
+        assertThrows(NotFoundException.class, () -> itemService.getItemVersionTag(-100L, itemOwnerId));
+
+        // Approved booking changes the owner tag only
+        addBookingToDb(createBooking(booker, getItemFromDb(itemId), "2005-01-01 10:00:00"));
+        String ownerTagWithBooking = itemService.getItemVersionTag(itemId, itemOwnerId);
+        assertNotEquals(ownerTag, ownerTagWithBooking);
+        assertThat(itemService.getItemVersionTag(itemId, bookerId), equalTo(bookerTag));
+
+        // Comment changes both tags
+        itemService.addCommentToItem(itemId, bookerId, createComment(booker, getItemFromDb(itemId)));
+        String bookerTagWithComment = itemService.getItemVersionTag(itemId, bookerId);
+        assertNotEquals(bookerTag, bookerTagWithComment);
+        assertNotEquals(ownerTagWithBooking, itemService.getItemVersionTag(itemId, itemOwnerId));
+
+        // Renamed comment author changes both tags
+        getUserFromDb(bookerId).setName("Renamed");
+        em.flush();
+        String bookerTagWithRenamedAuthor = itemService.getItemVersionTag(itemId, bookerId);
+        assertNotEquals(bookerTagWithComment, bookerTagWithRenamedAuthor);
+        bookerTagWithComment = bookerTagWithRenamedAuthor;
+
+        // Item update changes both tags
+        itemService.updateItem(Item.builder().name("Updated").build(), itemId, itemOwnerId);
+        em.flush();
+        assertNotEquals(bookerTagWithComment, itemService.getItemVersionTag(itemId, bookerId));
+    }
+
     @Test
     public void addCommentToItemTest() {
         // Create itemOwner and booker
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.item_test;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.GetItemDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares owner item listing mapping against the previous per-item scan of all comments and bookings.
+ * Not run by the test suite, start it with the main method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemMapperBenchmark {
+
+    @Param({"100", "1000"})
+    private int itemsCount;
+
+    @Param({"20"})
+    private int bookingsPerItem;
+
+    @Param({"5"})
+    private int commentsPerItem;
+
+    private List<Item> items;
+    private List<Comment> comments;
+    private List<Booking> bookings;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        User owner = User.builder().id(1L).name("owner").email("owner@mail.ru").build();
+        User booker = User.builder().id(2L).name("booker").email("booker@mail.ru").build();
+        BookingStatus[] statuses = BookingStatus.values();
+        items = new ArrayList<>();
+        comments = new ArrayList<>();
+        bookings = new ArrayList<>();
+        long bookingId = 1;
+        long commentId = 1;
+        for (long itemId = 1; itemId <= itemsCount; itemId++) {
+            Item item = Item.builder().id(itemId).name("item" + itemId).description("description")
+                    .available(true).owner(owner).build();
+            items.add(item);
+            for (int i = 0; i < bookingsPerItem; i++) {
+                LocalDateTime start = now.plusHours(random.nextInt(2000) - 1000);
+                bookings.add(Booking.builder().id(bookingId++).item(item).booker(booker).start(start)
+                        .end(start.plusHours(1)).status(statuses[random.nextInt(statuses.length)]).build());
+            }
+            for (int i = 0; i < commentsPerItem; i++) {
+                comments.add(Comment.builder().id(commentId++).text("comment").item(item).author(booker)
+                        .creationDate(now).build());
+            }
+        }
+    }
+
+    @Benchmark
+    public List<GetItemDto> groupedMapping() {
+        return ItemMapper.toGetItemDto(items, comments, bookings);
+    }
+
+    @Benchmark
+    public List<GetItemDto> perItemScanMapping() {
+        return items.stream()
+                .map(item -> perItemScan(item, comments, bookings))
+                .collect(Collectors.toList());
+    }
+
+    private static GetItemDto perItemScan(Item item, List<Comment> comments, List<Booking> bookings) {
+        Booking lastBooking = bookings.stream()
+                .filter(booking -> booking.getItem().getId().equals(item.getId()))
+                .filter(booking -> booking.getStart().isBefore(LocalDateTime.now()) &&
+                        booking.getStatus() == BookingStatus.APPROVED)
+                .max(Comparator.comparing(Booking::getStart))
+                .orElse(null);
+        Booking nextBooking = bookings.stream()
+                .filter(booking -> booking.getItem().getId().equals(item.getId()))
+                .filter(booking -> booking.getStart().isAfter(LocalDateTime.now()) &&
+                        booking.getStatus() == BookingStatus.APPROVED)
+                .min(Comparator.comparing(Booking::getStart))
+                .orElse(null);
+        return GetItemDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .lastBooking(lastBooking != null ? BookingMapper.toShortBookingDto(lastBooking) : null)
+                .nextBooking(nextBooking != null ? BookingMapper.toShortBookingDto(nextBooking) : null)
+                .comments(CommentMapper.toCommentDto(comments.stream()
+                        .filter(c -> c.getItem().getId().equals(item.getId())).collect(Collectors.toList())))
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ItemMapperBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
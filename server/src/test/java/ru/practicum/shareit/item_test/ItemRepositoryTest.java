@@ -5,13 +5,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.PageRequest;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 
 import javax.persistence.Query;
-import javax.persistence.TypedQuery;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -29,9 +26,9 @@ public class ItemRepositoryTest {
         // Add items to DB
         addItemsToDb();
         // Get items from DB
-        List<Item> items1 = itemRepository.searchItems("name", PageRequest.of(0, 10)).getContent();
-        List<Item> items2 = itemRepository.searchItems("1", PageRequest.of(0, 10)).getContent();
-        List<Item> items3 = itemRepository.searchItems("desc", PageRequest.of(0, 10)).getContent();
+        List<Item> items1 = itemRepository.search("name", 0, 10);
+        List<Item> items2 = itemRepository.search("1", 0, 10);
+        List<Item> items3 = itemRepository.search("DESC", 0, 10);
         // Check return values
         assertThat(items1.size(), equalTo(3));
         assertThat(items2.size(), equalTo(1));
@@ -40,18 +37,58 @@ public class ItemRepositoryTest {
     }
 
     @Test
-    public void findItemsByBookingsIdsTest() {
+    public void searchItemsOrderTest() {
         // Add items to DB
         addItemsToDb();
-        // Add bookings to DB
-        addBookingsToDb();
-        // Get items from DB
-        List<Item> items1 = itemRepository.findItemsByBookingsIds(List.of(1L, 2L, 3L));
-        List<Item> items2 = itemRepository.findItemsByBookingsIds(List.of(2L));
+        Query query = em.getEntityManager().createNativeQuery(
+                "INSERT INTO items (name, description, available) " +
+                   "VALUES ('drill', 'name4', true), " +
+                          "('name5', 'drill', true), " +
+                          "('drill', 'not available', false)");
+        query.executeUpdate();
+        // Get items from DB. Name matches must be first
+        List<Item> items1 = itemRepository.search("drill", 0, 10);
+        // Get items from DB page by page
+        List<Item> page1 = itemRepository.search("name", 0, 2);
+        List<Item> page2 = itemRepository.search("name", 2, 2);
+        List<Item> page3 = itemRepository.search("name", 4, 2);
         // Check return values
-        assertThat(items1.size(), equalTo(3));
+        assertThat(items1.size(), equalTo(2));
+        assertThat(items1.get(0).getName(), equalTo("drill"));
+        assertThat(items1.get(1).getName(), equalTo("name5"));
+        assertThat(page1.size(), equalTo(2));
+        assertThat(page2.size(), equalTo(2));
+        assertThat(page3.size(), equalTo(1));
+        assertThat(page1.get(0).getName(), equalTo("name1"));
+        assertThat(page1.get(1).getName(), equalTo("name2"));
+        assertThat(page2.get(0).getName(), equalTo("name3"));
+        assertThat(page2.get(1).getName(), equalTo("name5"));
+        assertThat(page3.get(0).getName(), equalTo("drill"));
+    }
+
+    @Test
+    public void searchItemsWithWildcardsTest() {
+        // Add items to DB
+        Query query = em.getEntityManager().createNativeQuery(
+                "INSERT INTO items (name, description, available) " +
+                   "VALUES ('saw 50%', 'desc', true), " +
+                          "('saw 500', 'desc', true), " +
+                          "('saw_blade', 'desc', true), " +
+                          "('saw\\blade', 'desc', true)");
+        query.executeUpdate();
+        // Get items from DB. Wildcards and escape character must match literally
+        List<Item> items1 = itemRepository.search("50%", 0, 10);
+        List<Item> items2 = itemRepository.search("saw_", 0, 10);
+        List<Item> items3 = itemRepository.search("saw\\", 0, 10);
+        List<Item> items4 = itemRepository.search("%", 0, 10);
+        // Check return values
+        assertThat(items1.size(), equalTo(1));
+        assertThat(items1.get(0).getName(), equalTo("saw 50%"));
         assertThat(items2.size(), equalTo(1));
-        assertThat(items2.get(0).getId(), equalTo(getBookingById().getItem().getId()));
+        assertThat(items2.get(0).getName(), equalTo("saw_blade"));
+        assertThat(items3.size(), equalTo(1));
+        assertThat(items3.get(0).getName(), equalTo("saw\\blade"));
+        assertThat(items4.size(), equalTo(1));
     }
 
     private void addItemsToDb() {
@@ -62,21 +99,4 @@ public class ItemRepositoryTest {
                           "('name3', 'desc3', true)");
         query.executeUpdate();
     }
-
-    private void addBookingsToDb() {
-        Query query = em.getEntityManager().createNativeQuery(
-                "INSERT INTO bookings (start_booking, end_booking, id_item) " +
-                        "VALUES (CURRENT_TIMESTAMP, '2100-01-01', 1), " +
-                               "(CURRENT_TIMESTAMP, '2100-01-01', 2), " +
-                               "(CURRENT_TIMESTAMP, '2100-01-01', 3)");
-        query.executeUpdate();
-    }
-
-    private Booking getBookingById() {
-        TypedQuery<Booking> query = em.getEntityManager().createQuery(
-                "SELECT b FROM Booking AS b " +
-                   "WHERE b.id = ?1", Booking.class);
-        query.setParameter(1, 2L);
-        return query.getSingleResult();
-    }
 }
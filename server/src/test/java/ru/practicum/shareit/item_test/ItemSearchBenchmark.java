@@ -0,0 +1,150 @@
+package ru.practicum.shareit.item_test;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the production item search query on a trigram indexed table with the query it replaced on the same table
+ * without trigram indexes. Both sort name matches first and read the first page of 20 items. The production query is
+ * also measured without trigram indexes, to separate the index gain from the ts_rank ordering cost.
+ * Needs a Postgres database with pg_trgm available, configured with the same environment variables as the server
+ * (DB_HOST, DB_PORT, DB_NAME, POSTGRES_USER, POSTGRES_PASSWORD). Not run by the test suite, start it with the
+ * main method.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemSearchBenchmark {
+
+    private static final String PLAIN_TABLE = "items_search_bench_plain";
+    private static final String TRIGRAM_TABLE = "items_search_bench_trgm";
+    private static final int PAGE_SIZE = 20;
+
+    // Search query before trigram indexes, as ItemRepositoryCustomImpl still runs it on other platforms
+    private static final String PREVIOUS_QUERY = "select i.* " +
+            "from %s as i " +
+            "where i.available = true " +
+            "and (lower(i.name) like concat('%%', ?, '%%') escape '\\' " +
+            "or lower(i.description) like concat('%%', ?, '%%') escape '\\') " +
+            "order by case when lower(i.name) like concat('%%', ?, '%%') escape '\\' then 0 else 1 end, i.id_item " +
+            "limit " + PAGE_SIZE;
+
+    // ItemRepositoryCustomImpl.RANKED_SEARCH_QUERY with the first page limit Hibernate adds
+    private static final String RANKED_QUERY = "select i.* " +
+            "from %s as i " +
+            "where i.available = true " +
+            "and (lower(i.name) like concat('%%', ?, '%%') escape '\\' " +
+            "or lower(i.description) like concat('%%', ?, '%%') escape '\\') " +
+            "order by case when lower(i.name) like concat('%%', ?, '%%') escape '\\' then 0 else 1 end, " +
+            "ts_rank(i.search_vector, to_tsquery('simple', ?)) desc, i.id_item " +
+            "limit " + PAGE_SIZE;
+
+    @Param({"1000000"})
+    private int itemsCount;
+
+    @Param({"hammerdrill", "drill", "zzzz"})
+    private String keyword;
+
+    private Connection connection;
+    private PreparedStatement previousStatement;
+    private PreparedStatement rankedPlainStatement;
+    private PreparedStatement rankedTrigramStatement;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                String.format("jdbc:postgresql://%s:%s/%s",
+                        System.getenv("DB_HOST"), System.getenv("DB_PORT"), System.getenv("DB_NAME")),
+                System.getenv("POSTGRES_USER"), System.getenv("POSTGRES_PASSWORD"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            for (String table : new String[]{PLAIN_TABLE, TRIGRAM_TABLE}) {
+                statement.execute("DROP TABLE IF EXISTS " + table);
+                statement.execute("CREATE TABLE " + table + " (" +
+                        "id_item SERIAL PRIMARY KEY, " +
+                        "name VARCHAR(255) NOT NULL, " +
+                        "description VARCHAR NOT NULL, " +
+                        "available BOOLEAN NOT NULL, " +
+                        "search_vector tsvector GENERATED ALWAYS AS " +
+                        "(setweight(to_tsvector('simple', name), 'A') || " +
+                        "setweight(to_tsvector('simple', description), 'B')) STORED)");
+                statement.execute("INSERT INTO " + table + " (name, description, available) " +
+                        "SELECT 'Item ' || md5(g::text), " +
+                        "md5((g + 1)::text) || CASE WHEN g % 1000 = 0 THEN ' hammerdrill' ELSE '' END, " +
+                        "g % 10 <> 0 " +
+                        "FROM generate_series(1, " + itemsCount + ") AS g");
+            }
+            statement.execute("CREATE INDEX ON " + TRIGRAM_TABLE + " USING gin (lower(name) gin_trgm_ops)");
+            statement.execute("CREATE INDEX ON " + TRIGRAM_TABLE + " USING gin (lower(description) gin_trgm_ops)");
+            statement.execute("ANALYZE " + PLAIN_TABLE);
+            statement.execute("ANALYZE " + TRIGRAM_TABLE);
+        }
+        previousStatement = connection.prepareStatement(String.format(PREVIOUS_QUERY, PLAIN_TABLE));
+        rankedPlainStatement = connection.prepareStatement(String.format(RANKED_QUERY, PLAIN_TABLE));
+        rankedTrigramStatement = connection.prepareStatement(String.format(RANKED_QUERY, TRIGRAM_TABLE));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + PLAIN_TABLE);
+            statement.execute("DROP TABLE IF EXISTS " + TRIGRAM_TABLE);
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public int previousSearch() throws SQLException {
+        previousStatement.setString(1, keyword);
+        previousStatement.setString(2, keyword);
+        previousStatement.setString(3, keyword);
+        return count(previousStatement);
+    }
+
+    @Benchmark
+    public int rankedSearchWithoutTrigramIndexes() throws SQLException {
+        return count(setRankedParameters(rankedPlainStatement));
+    }
+
+    @Benchmark
+    public int rankedSearch() throws SQLException {
+        return count(setRankedParameters(rankedTrigramStatement));
+    }
+
+    private PreparedStatement setRankedParameters(PreparedStatement statement) throws SQLException {
+        statement.setString(1, keyword);
+        statement.setString(2, keyword);
+        statement.setString(3, keyword);
+        statement.setString(4, keyword + ":*");
+        return statement;
+    }
+
+    private static int count(PreparedStatement statement) throws SQLException {
+        int count = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ItemSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.notification_test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Server-sent event subscription of a user, for tests running the server on a real port.
+ */
+public class EventStream implements AutoCloseable {
+
+    private final HttpResponse<Stream<String>> response;
+
+    private EventStream(HttpResponse<Stream<String>> response) {
+        this.response = response;
+    }
+
+    public static EventStream subscribe(int port, String path, Long userId) throws Exception {
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder()
+                        .uri(URI.create("http://localhost:" + port + path))
+                        .header("X-Sharer-User-Id", String.valueOf(userId))
+                        .header("Accept", "text/event-stream")
+                        .build(),
+                HttpResponse.BodyHandlers.ofLines());
+        assertThat(response.statusCode(), equalTo(200));
+        return new EventStream(response);
+    }
+
+    /**
+     * Lines of the first event on the stream, from its "event:" line to its "data:" line.
+     * The stream can be read once.
+     */
+    public CompletableFuture<List<String>> nextEvent() {
+        return CompletableFuture.supplyAsync(() -> response.body()
+                .dropWhile(line -> !line.startsWith("event:"))
+                .takeWhile(line -> !line.isEmpty())
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public void close() {
+        response.body().close();
+    }
+}
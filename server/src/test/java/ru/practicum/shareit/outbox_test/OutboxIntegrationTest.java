@@ -0,0 +1,123 @@
+package ru.practicum.shareit.outbox_test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.outbox.model.AggregateType;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxEventRepository;
+import ru.practicum.shareit.outbox.service.OutboxService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+@Transactional
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class OutboxIntegrationTest {
+
+    private final OutboxService outboxService;
+    private final OutboxEventRepository outboxRepository;
+    private final BookingService bookingService;
+    private final ItemService itemService;
+    private final ItemRequestService requestService;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${shareit.outbox.file-sink.path}")
+    private Path sinkPath;
+
+    @Test
+    public void relayEventsTest() throws Exception {
+        Files.deleteIfExists(sinkPath);
+        // Change a request, an item and a booking
+        User itemOwner = userService.addUser(createUser("owner@mail.com"));
+        User booker = userService.addUser(createUser("booker@mail.com"));
+        ItemRequest request = requestService.addItemRequest(booker.getId(),
+                ItemRequestDto.builder().description("Need a drill").build());
+        Item item = itemService.addItem(Item.builder().name("Drill").description("Drill").available(true).build(),
+                itemOwner.getId(), request.getId());
+        itemService.updateItem(Item.builder().name("Hammer drill").build(), item.getId(), itemOwner.getId());
+        Booking booking = bookingService.addBooking(ShortBookingDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build(), booker.getId());
+        bookingService.updateBookingStatus(booking.getId(), itemOwner.getId(), "true");
+
+        // Check events are stored in the same transaction, in order
+        List<OutboxEvent> events = outboxRepository.findAll().stream()
+                .filter(event -> isChangeOf(event.getAggregateType(), event.getAggregateId(), request, item, booking))
+                .collect(Collectors.toList());
+        assertThat(events.stream().map(OutboxEvent::getEventType).collect(Collectors.toList()), contains(
+                "request-created", "item-created", "item-updated", "booking-created", "booking-status-changed"));
+
+        // Relay events to the file sink
+        outboxService.relayEvents();
+        assertThat(outboxRepository.count(), is(0L));
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : Files.readAllLines(sinkPath)) {
+            JsonNode event = objectMapper.readTree(line);
+            if (isChangeOf(AggregateType.valueOf(event.get("aggregateType").asText()),
+                    event.get("aggregateId").asLong(), request, item, booking)) {
+                lines.add(event);
+            }
+        }
+        assertThat(lines.size(), equalTo(events.size()));
+        for (int i = 0; i < events.size(); i++) {
+            assertThat(lines.get(i).get("id").asLong(), equalTo(events.get(i).getId()));
+            assertThat(lines.get(i).get("type").asText(), equalTo(events.get(i).getEventType()));
+        }
+        assertThat(lines.get(2).get("payload").get("name").asText(), equalTo("Hammer drill"));
+        assertThat(lines.get(4).get("payload").get("status").asText(), equalTo("APPROVED"));
+
+        // Nothing left to relay
+        long relayedCount = Files.lines(sinkPath).count();
+        outboxService.relayEvents();
+        assertThat(Files.lines(sinkPath).count(), equalTo(relayedCount));
+    }
+
+    private static boolean isChangeOf(AggregateType type, Long id, ItemRequest request, Item item, Booking booking) {
+        switch (type) {
+            case REQUEST:
+                return id.equals(request.getId());
+            case ITEM:
+                return id.equals(item.getId());
+            default:
+                return id.equals(booking.getId());
+        }
+    }
+
+    private User createUser(String email) {
+        return User.builder()
+                .name("User")
+                .email(email)
+                .items(new ArrayList<>())
+                .requests(new ArrayList<>())
+                .build();
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.outbox_test;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.ShortBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class OutboxOrderingTest {
+
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final UserService userService;
+    private final PlatformTransactionManager transactionManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void concurrentItemChangesOrderTest() throws Exception {
+        // Add item owner, booker, item and a finished approved booking. Every call commits
+        User itemOwner = userService.addUser(createUser("ordering-owner@mail.com"));
+        User booker = userService.addUser(createUser("ordering-booker@mail.com"));
+        Item item = itemService.addItem(Item.builder().name("Drill").description("Drill").available(true).build(),
+                itemOwner.getId(), null);
+        Booking booking = bookingService.addBooking(ShortBookingDto.builder()
+                .itemId(item.getId())
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .build(), booker.getId());
+        bookingService.updateBookingStatus(booking.getId(), itemOwner.getId(), "true");
+        try {
+            // Comment the item in a transaction that stays open
+            CountDownLatch commentAdded = new CountDownLatch(1);
+            CountDownLatch commitComment = new CountDownLatch(1);
+            CompletableFuture<Void> commentTransaction = CompletableFuture.runAsync(() ->
+                    new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                        itemService.addCommentToItem(item.getId(), booker.getId(),
+                                Comment.builder().text("Good drill").build());
+                        commentAdded.countDown();
+                        try {
+                            commitComment.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }));
+            assertThat(commentAdded.await(5, TimeUnit.SECONDS), is(true));
+
+            // Update the item meanwhile. It has to wait for the comment transaction
+            CompletableFuture<Item> updateTransaction = CompletableFuture.supplyAsync(() -> itemService.updateItem(
+                    Item.builder().name("Hammer drill").build(), item.getId(), itemOwner.getId()));
+            Thread.sleep(300);
+            assertThat(updateTransaction.isDone(), is(false));
+            commitComment.countDown();
+            commentTransaction.get(5, TimeUnit.SECONDS);
+            updateTransaction.get(5, TimeUnit.SECONDS);
+
+            // Check event ids follow the commit order
+            List<String> eventTypes = jdbcTemplate.queryForList("SELECT event_type FROM outbox_events " +
+                    "WHERE aggregate_type = 'ITEM' AND id_aggregate = ? ORDER BY id_event", String.class, item.getId());
+            assertThat(eventTypes, contains("item-created", "comment-added", "item-updated"));
+        } finally {
+            jdbcTemplate.update("DELETE FROM comments WHERE id_item = ?", item.getId());
+            jdbcTemplate.update("DELETE FROM item_booking_summaries WHERE id_item = ?", item.getId());
+            jdbcTemplate.update("DELETE FROM bookings WHERE id_item = ?", item.getId());
+            itemService.deleteItem(item.getId(), itemOwner.getId());
+            jdbcTemplate.update("DELETE FROM outbox_events WHERE aggregate_type = 'ITEM' AND id_aggregate = ?",
+                    item.getId());
+            jdbcTemplate.update("DELETE FROM outbox_events WHERE aggregate_type = 'BOOKING' AND id_aggregate = ?",
+                    booking.getId());
+            userService.deleteUser(booker.getId());
+            userService.deleteUser(itemOwner.getId());
+        }
+    }
+
+    private User createUser(String email) {
+        return User.builder()
+                .name("User")
+                .email(email)
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.request_test;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.notification_test.EventStream;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemOfferNotificationTest {
+
+    private final ItemRequestService requestService;
+    private final ItemRequestRepository requestRepository;
+    private final ItemService itemService;
+    private final UserService userService;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    public void itemOfferNotificationTest() throws Exception {
+        // Add requestor, item owner and request. Every call commits
+        User requestor = userService.addUser(createUser("requestor@mail.com"));
+        User itemOwner = userService.addUser(createUser("owner@mail.com"));
+        ItemRequest request = requestService.addItemRequest(requestor.getId(),
+                ItemRequestDto.builder().description("Need a drill").build());
+        Item item = null;
+        // Subscribe requestor to item offers
+        try (EventStream stream = EventStream.subscribe(port, "/requests/offers", requestor.getId())) {
+            CompletableFuture<List<String>> event = stream.nextEvent();
+
+            // Answer the request with an item
+            item = itemService.addItem(Item.builder().name("Drill").description("Drill").available(true).build(),
+                    itemOwner.getId(), request.getId());
+
+            // Check the requestor got the offer
+            List<String> lines = event.get(10, TimeUnit.SECONDS);
+            assertThat(lines, hasItem("event:item-offer"));
+            assertThat(lines.get(lines.size() - 1), containsString("\"requestId\":" + request.getId()));
+        } finally {
+            if (item != null) {
+                itemService.deleteItem(item.getId(), itemOwner.getId());
+            }
+            requestRepository.deleteById(request.getId());
+            userService.deleteUser(itemOwner.getId());
+            userService.deleteUser(requestor.getId());
+        }
+    }
+
+    private User createUser(String email) {
+        return User.builder()
+                .name("User")
+                .email(email)
+                .build();
+    }
+}
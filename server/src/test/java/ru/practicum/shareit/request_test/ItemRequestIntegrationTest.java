@@ -6,6 +6,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.GetItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
@@ -17,6 +19,7 @@ import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -76,6 +79,67 @@ public class ItemRequestIntegrationTest {
         assertThrows(NotFoundException.class, () -> requestService.getItemRequestsById(requestorId, 100L));
     }
 
+    @Test
+    public void getUserItemRequestsTest() {
+        // Create requestor and another user. Add them to DB
+        User requestor = createUser("requestor@mail.com");
+        User anotherUser = createUser("another@mail.com");
+        Long requestorId = addUserToDb(requestor);
+        Long anotherUserId = addUserToDb(anotherUser);
+        // Add three own requests and a request of another user
+        ItemRequest oldest = requestService.addItemRequest(requestorId,
+                ItemRequestMapper.toItemRequestDto(createItemRequest(requestor, 1)));
+        ItemRequest middle = requestService.addItemRequest(requestorId,
+                ItemRequestMapper.toItemRequestDto(createItemRequest(requestor, 2)));
+        ItemRequest newest = requestService.addItemRequest(requestorId,
+                ItemRequestMapper.toItemRequestDto(createItemRequest(requestor, 3)));
+        requestService.addItemRequest(anotherUserId, ItemRequestMapper.toItemRequestDto(createItemRequest(anotherUser, 4)));
+        oldest.setCreated(oldest.getCreated().minusDays(2));
+        middle.setCreated(middle.getCreated().minusDays(1));
+        // Answer the oldest request
+        em.persist(Item.builder().name("Item").description("Desc").available(true)
+                .owner(anotherUser).request(oldest).build());
+        em.flush();
+
+        // Get own requests by pages
+        List<GetItemRequestDto> firstPage = requestService.getItemRequests(requestorId, 0, 2);
+        List<GetItemRequestDto> secondPage = requestService.getItemRequests(requestorId, 2, 2);
+        GetItemRequestDto lastOnPage = firstPage.get(firstPage.size() - 1);
+        List<GetItemRequestDto> pageAfterCursor = requestService.getItemRequestsAfterCursor(requestorId,
+                new PageCursor(lastOnPage.getCreated(), lastOnPage.getId()), 2);
+        // Check results: newest first, items loaded for the page
+        assertThat(firstPage.stream().map(GetItemRequestDto::getId).collect(Collectors.toList()),
+                contains(newest.getId(), middle.getId()));
+        assertThat(secondPage.stream().map(GetItemRequestDto::getId).collect(Collectors.toList()),
+                contains(oldest.getId()));
+        assertThat(secondPage.get(0).getItems().size(), equalTo(1));
+        assertThat(pageAfterCursor.stream().map(GetItemRequestDto::getId).collect(Collectors.toList()),
+                contains(oldest.getId()));
+        assertThrows(NotFoundException.class, () -> requestService.getItemRequests(100L, 0, 2));
+    }
+
+    @Test
+    public void itemRequestVersionTagTest() {
+        // Create requestor and item owner. Add them to DB
+        User requestor = createUser("requestor@mail.com");
+        User itemOwner = createUser("owner@mail.com");
+        Long requestorId = addUserToDb(requestor);
+        addUserToDb(itemOwner);
+        // Add request to DB
+        ItemRequest itemRequest = requestService.addItemRequest(requestorId,
+                ItemRequestMapper.toItemRequestDto(createItemRequest(requestor, 1)));
+        String tag = requestService.getItemRequestVersionTag(requestorId, itemRequest.getId());
+
+        // Tag does not change while the request stays the same
+        assertThat(requestService.getItemRequestVersionTag(requestorId, itemRequest.getId()), equalTo(tag));
+        assertThrows(NotFoundException.class, () -> requestService.getItemRequestVersionTag(requestorId, 100L));
+
+        // Item added for the request changes the tag
+        em.persist(Item.builder().name("Item").description("Desc").available(true)
+                .owner(itemOwner).request(itemRequest).build());
+        assertThat(requestService.getItemRequestVersionTag(requestorId, itemRequest.getId()), not(equalTo(tag)));
+    }
+
     @Test
     public void getAllAnotherUsersItemRequestsTest() {
         // Create users. Add requestor to DB
@@ -92,15 +156,48 @@ public class ItemRequestIntegrationTest {
         ItemRequest addedItemRequest2 = requestService.addItemRequest(user1Id, itemRequestDto2);
         ItemRequest addedItemRequest3 = requestService.addItemRequest(user1Id, itemRequestDto3);
 
-        // Get other users requests by user1
+        // Get other users requests, newest first
         List<GetItemRequestDto> list1 = requestService.getAllAnotherUsersItemRequests(user1Id, 0, 10);
         List<GetItemRequestDto> list2 = requestService.getAllAnotherUsersItemRequests(user2Id, 0, 10);
         // Check results
         assertThat(list1.size(), equalTo(1));
         assertThat(list1.get(0).getId(), equalTo(addedItemRequest1.getId()));
         assertThat(list2.size(), equalTo(2));
-        assertThat(list2.get(0).getId(), equalTo(addedItemRequest2.getId()));
-        assertThat(list2.get(1).getId(), equalTo(addedItemRequest3.getId()));
+        assertThat(list2.get(0).getId(), equalTo(addedItemRequest3.getId()));
+        assertThat(list2.get(1).getId(), equalTo(addedItemRequest2.getId()));
+    }
+
+    @Test
+    public void getAnotherUsersItemRequestsAfterCursorTest() {
+        // Create users. Add them to DB
+        User user1 = createUser("user1@mail.com");
+        User user2 = createUser("user2@mail.com");
+        Long user1Id = addUserToDb(user1);
+        Long user2Id = addUserToDb(user2);
+        // Add own request and three requests of another user, two of them created at the same time
+        requestService.addItemRequest(user1Id, ItemRequestMapper.toItemRequestDto(createItemRequest(user1, 0)));
+        ItemRequest oldest = requestService.addItemRequest(user2Id,
+                ItemRequestMapper.toItemRequestDto(createItemRequest(user2, 1)));
+        ItemRequest second = requestService.addItemRequest(user2Id,
+                ItemRequestMapper.toItemRequestDto(createItemRequest(user2, 2)));
+        ItemRequest newest = requestService.addItemRequest(user2Id,
+                ItemRequestMapper.toItemRequestDto(createItemRequest(user2, 3)));
+        oldest.setCreated(oldest.getCreated().minusDays(1));
+        second.setCreated(newest.getCreated());
+        em.flush();
+
+        // Walk the feed of user1 page by page
+        List<GetItemRequestDto> firstPage = requestService.getAnotherUsersItemRequestsAfterCursor(user1Id, null, 2);
+        GetItemRequestDto lastOnPage = firstPage.get(firstPage.size() - 1);
+        List<GetItemRequestDto> secondPage = requestService.getAnotherUsersItemRequestsAfterCursor(user1Id,
+                new PageCursor(lastOnPage.getCreated(), lastOnPage.getId()), 2);
+        // Check results: newest first, ties broken by id descending, no own requests
+        assertThat(firstPage.stream().map(GetItemRequestDto::getId).collect(Collectors.toList()),
+                contains(newest.getId(), second.getId()));
+        assertThat(secondPage.stream().map(GetItemRequestDto::getId).collect(Collectors.toList()),
+                contains(oldest.getId()));
+        assertThrows(NotFoundException.class,
+                () -> requestService.getAnotherUsersItemRequestsAfterCursor(100L, null, 2));
     }
 
     private User createUser(String...strings) {
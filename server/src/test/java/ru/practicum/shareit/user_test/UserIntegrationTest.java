@@ -1,11 +1,15 @@
 package ru.practicum.shareit.user_test;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 import ru.practicum.shareit.user.service.UserService;
 
 import javax.persistence.EntityManager;
@@ -16,7 +20,9 @@ import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Transactional
@@ -25,6 +31,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 public class UserIntegrationTest {
 
     private final UserService userService;
+    private final UserExistenceCache userExistenceCache;
     private final EntityManager em;
 
     @Test
@@ -93,6 +100,19 @@ public class UserIntegrationTest {
         assertThat(updatedUsersList.get(0).getName(), equalTo("updatedUser"));
     }
 
+    @Test
+    public void userVersionTagTest() {
+        // Create user and add user to DB
+        long userId = addUserToDb(createUser(1));
+        String tag = userService.getUserVersionTag(userId);
+        // Tag does not change while the user stays the same
+        assertThat(userService.getUserVersionTag(userId), equalTo(tag));
+        // Update changes the tag
+        userService.updateUser(User.builder().name("updatedUser").build(), userId);
+        em.flush();
+        assertThat(userService.getUserVersionTag(userId), not(equalTo(tag)));
+    }
+
     @Test
     public void deleteUserTest() {
         // Create user
@@ -110,6 +130,39 @@ public class UserIntegrationTest {
         assertThat(newUsersList.size(), equalTo(0));
     }
 
+    @Test
+    public void userExistenceCacheTest() {
+        // Add user
+        User user = userService.addUser(createUser(1));
+        // Check existence of added and unknown users
+        assertTrue(userExistenceCache.exists(user.getId()));
+        assertTrue(userExistenceCache.exists(user.getId()));
+        assertFalse(userExistenceCache.exists(-100L));
+        // Delete user
+        userService.deleteUser(user.getId());
+        // Check existence of deleted user
+        assertFalse(userExistenceCache.exists(user.getId()));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void secondLevelCacheTest() {
+        // Add user to DB and commit
+        User user = userService.addUser(createUser(1));
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        try {
+            // Load user twice in separate transactions
+            userService.getUserById(user.getId());
+            long hits = statistics.getSecondLevelCacheHitCount();
+            User userFromDb = userService.getUserById(user.getId());
+            // Check second load came from cache
+            assertThat(userFromDb.getName(), equalTo(user.getName()));
+            assertThat(statistics.getSecondLevelCacheHitCount(), equalTo(hits + 1));
+        } finally {
+            userService.deleteUser(user.getId());
+        }
+    }
+
     private User createUser(int i) {
         return User.builder()
                 .name("User" + i)